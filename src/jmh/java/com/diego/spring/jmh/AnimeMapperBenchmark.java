@@ -0,0 +1,34 @@
+package com.diego.spring.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.mapper.AnimeMapper;
+import com.diego.spring.request.AnimePostRequestBody;
+
+// POST /anime: AnimePostRequestBody -> Anime (MapStruct)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimeMapperBenchmark {
+	
+	private final AnimePostRequestBody animePostRequestBody = new AnimePostRequestBody("Naruto Shippuden");
+	
+	@Benchmark
+	public Anime toAnime() {
+		return AnimeMapper.INSTANCE.toAnime(animePostRequestBody);
+	}
+}
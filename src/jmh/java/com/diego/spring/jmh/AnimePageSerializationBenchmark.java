@@ -0,0 +1,66 @@
+package com.diego.spring.jmh;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.response.PageResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// GET /anime: Page<Anime> (pageable, sort, totais...) contra o PageResponse com o mesmo conteúdo.
+// Tamanho do JSON (bytes) impresso no setup; alocação por operação com -Djmh.profiler=gc (padrão)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimePageSerializationBenchmark {
+	
+	@Param({"20", "200"})
+	private int size;
+	
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private Page<Anime> page;
+	private PageResponse<Anime> pageResponse;
+	
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		List<Anime> content = IntStream.range(0, size)
+				.mapToObj(i -> Anime.builder().id((long) i).name("Anime " + i).build())
+				.collect(Collectors.toList());
+		page = new PageImpl<>(content, PageRequest.of(3, size, Sort.by("name")), 10_000);
+		pageResponse = PageResponse.of(page);
+		System.out.printf("%nsize=%d: page %d bytes, pageResponse %d bytes%n", size,
+				objectMapper.writeValueAsBytes(page).length, objectMapper.writeValueAsBytes(pageResponse).length);
+	}
+	
+	@Benchmark
+	public byte[] page() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(page);
+	}
+	
+	@Benchmark
+	public byte[] pageResponse() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(pageResponse);
+	}
+}
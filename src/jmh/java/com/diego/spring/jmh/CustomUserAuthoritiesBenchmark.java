@@ -0,0 +1,77 @@
+package com.diego.spring.jmh;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.diego.spring.domain.CustomUser;
+
+// Chamado pelo Spring Security em toda requisição autenticada (hasRole). Alocação por operação
+// (gc.alloc.rate.norm) sai no relatório do profiler gc, ativo por padrão no perfil jmh.
+// splitOnEveryCall* reproduzem a implementação anterior, que separava a coluna a cada chamada.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomUserAuthoritiesBenchmark {
+	
+	private static final String AUTHORITIES = "ROLE_USER,ROLE_ADMIN";
+	private static final String ROLE_ADMIN = "ROLE_ADMIN";
+	
+	private final CustomUser user = CustomUser.builder()
+			.name("Diego")
+			.username("diego")
+			.authorities(AUTHORITIES)
+			.build();
+	
+	@Benchmark
+	public Collection<? extends GrantedAuthority> getAuthorities() {
+		return user.getAuthorities();
+	}
+	
+	@Benchmark
+	public Collection<? extends GrantedAuthority> splitOnEveryCall() {
+		return split(AUTHORITIES);
+	}
+	
+	// O que acontece por requisição: usuário montado a partir do token, authorities lidas e papel verificado
+	@Benchmark
+	public boolean perRequest() {
+		CustomUser tokenUser = CustomUser.builder()
+				.username("diego")
+				.authorities(AUTHORITIES)
+				.build();
+		return tokenUser.getAuthorities().size() > 0 && tokenUser.hasAuthority(ROLE_ADMIN);
+	}
+	
+	@Benchmark
+	public boolean splitOnEveryCallPerRequest() {
+		CustomUser.builder()
+				.username("diego")
+				.authorities(AUTHORITIES)
+				.build();
+		return split(AUTHORITIES).size() > 0 && split(AUTHORITIES).contains(new SimpleGrantedAuthority(ROLE_ADMIN));
+	}
+	
+	private static List<GrantedAuthority> split(String authorities) {
+		return Arrays.stream(authorities.split(","))
+				.map(SimpleGrantedAuthority::new)
+				.collect(Collectors.toList());
+	}
+}
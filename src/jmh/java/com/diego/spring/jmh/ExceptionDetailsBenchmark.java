@@ -0,0 +1,41 @@
+package com.diego.spring.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import com.diego.spring.exception.BadRequestException;
+import com.diego.spring.exception.BadRequestExceptionDetails;
+import com.diego.spring.handler.RestRequestHandler;
+
+// Caminho de erro (anime não encontrado): criação da exceção (stack trace incluso) e do corpo da resposta
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionDetailsBenchmark {
+	
+	private final RestRequestHandler restRequestHandler = new RestRequestHandler();
+	private final BadRequestException exception = new BadRequestException("Anime not found");
+	
+	@Benchmark
+	public ResponseEntity<BadRequestExceptionDetails> buildDetails() {
+		return restRequestHandler.handlerBadRequestException(exception);
+	}
+	
+	@Benchmark
+	public ResponseEntity<BadRequestExceptionDetails> throwAndBuildDetails() {
+		return restRequestHandler.handlerBadRequestException(new BadRequestException("Anime not found"));
+	}
+}
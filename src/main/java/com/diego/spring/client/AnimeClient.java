@@ -0,0 +1,204 @@
+package com.diego.spring.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.client.RestTemplate;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.request.AnimePatchRequestBody;
+import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.request.AnimePutRequestBody;
+import com.diego.spring.response.PageResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.Builder;
+import lombok.Value;
+
+// Cliente da API de animes para outros serviços, no lugar do "new RestTemplate()" por chamada do SpringClient.
+// Uma instância por aplicação (é thread-safe) e close() no shutdown:
+// - um pool de conexões (keep-alive) compartilhado por todas as chamadas, com timeouts de conexão, de leitura
+//   e de espera por uma conexão livre do pool
+// - métodos *Async executados em um pool de maxConcurrency threads: o fan-out (findByIdsAsync) nunca abre mais
+//   que maxConcurrency requisições simultâneas, o restante espera na fila
+// - cache local dos GETs com ETag: toda leitura revalida com If-None-Match e, no 304, usa a cópia local sem
+//   baixar o corpo (nem consultar o banco no servidor)
+// Erros da API (400, 409...) chegam como HttpStatusCodeException, o corpo é o ExceptionDetails do servidor.
+public class AnimeClient implements Closeable {
+
+	private static final ParameterizedTypeReference<List<Anime>> ANIME_LIST =
+			new ParameterizedTypeReference<List<Anime>>() {
+			};
+
+	private final CloseableHttpClient httpClient;
+	private final RestTemplate restTemplate;
+	private final ObjectMapper objectMapper;
+	private final ExecutorService executor;
+	// null com cacheSize = 0
+	private final Cache<URI, CachedResponse> cache;
+	private final JavaType animeType;
+	private final JavaType animePageType;
+
+	// token (Bearer, /auth/login) ou username/password (httpBasic, executa o bcrypt a cada requisição no servidor)
+	@Builder
+	private AnimeClient(String baseUrl, String token, String username, String password, Duration connectTimeout,
+			Duration readTimeout, Integer maxConnections, Integer maxConcurrency, Long cacheSize,
+			ObjectMapper objectMapper) {
+		int connections = maxConnections != null ? maxConnections : 20;
+		int concurrency = maxConcurrency != null ? maxConcurrency : connections;
+		int connectMillis = (int) (connectTimeout != null ? connectTimeout : Duration.ofSeconds(2)).toMillis();
+		int readMillis = (int) (readTimeout != null ? readTimeout : Duration.ofSeconds(10)).toMillis();
+
+		PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+		connectionManager.setMaxTotal(connections);
+		connectionManager.setDefaultMaxPerRoute(connections);
+		// Conexão parada há mais de 2s é testada antes do uso (o servidor pode tê-la fechado)
+		connectionManager.setValidateAfterInactivity(2000);
+		this.httpClient = HttpClients.custom()
+				.setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectTimeout(connectMillis)
+						.setSocketTimeout(readMillis)
+						.setConnectionRequestTimeout(connectMillis)
+						.build())
+				.evictIdleConnections(30, TimeUnit.SECONDS)
+				.disableCookieManagement() // sem JSESSIONID: cada requisição se autentica
+				.build();
+
+		this.objectMapper = objectMapper != null ? objectMapper : Jackson2ObjectMapperBuilder.json().build();
+		RestTemplateBuilder restTemplateBuilder = new RestTemplateBuilder()
+				.rootUri(baseUrl)
+				.requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpClient));
+		if (token != null) {
+			restTemplateBuilder = restTemplateBuilder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		} else if (username != null) {
+			restTemplateBuilder = restTemplateBuilder.basicAuthentication(username, password);
+		}
+		this.restTemplate = restTemplateBuilder.build();
+
+		AtomicInteger threads = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+			Thread thread = new Thread(runnable, "anime-client-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		long entries = cacheSize != null ? cacheSize : 10_000;
+		this.cache = entries > 0 ? Caffeine.newBuilder().maximumSize(entries).build() : null;
+		this.animeType = this.objectMapper.constructType(Anime.class);
+		this.animePageType = this.objectMapper.getTypeFactory().constructParametricType(PageResponse.class, Anime.class);
+	}
+
+	public Anime findById(long id) {
+		return get(animeType, "/anime/{id}", id);
+	}
+
+	public PageResponse<Anime> list(int page, int size) {
+		return get(animePageType, "/anime?page={page}&size={size}", page, size);
+	}
+
+	public List<Anime> findByName(String name) {
+		return restTemplate.exchange("/anime/find?name={name}", HttpMethod.GET, null, ANIME_LIST, name).getBody();
+	}
+
+	public Anime save(AnimePostRequestBody animePostRequestBody) {
+		return restTemplate.postForObject("/anime", animePostRequestBody, Anime.class);
+	}
+
+	// Com version no corpo o servidor responde 409 se o anime mudou desde a leitura
+	public void replace(AnimePutRequestBody animePutRequestBody) {
+		restTemplate.put("/anime", animePutRequestBody);
+	}
+
+	public void patch(long id, AnimePatchRequestBody animePatchRequestBody) {
+		restTemplate.patchForObject("/anime/{id}", animePatchRequestBody, Void.class, id);
+	}
+
+	// Exige ROLE_ADMIN
+	public void delete(long id) {
+		restTemplate.delete("/anime/admin/{id}", id);
+	}
+
+	public CompletableFuture<Anime> findByIdAsync(long id) {
+		return CompletableFuture.supplyAsync(() -> findById(id), executor);
+	}
+
+	public CompletableFuture<Anime> saveAsync(AnimePostRequestBody animePostRequestBody) {
+		return CompletableFuture.supplyAsync(() -> save(animePostRequestBody), executor);
+	}
+
+	// Uma requisição por id, no máximo maxConcurrency ao mesmo tempo; a lista segue a ordem dos ids
+	public CompletableFuture<List<Anime>> findByIdsAsync(Collection<Long> ids) {
+		List<CompletableFuture<Anime>> futures = ids.stream()
+				.map(this::findByIdAsync)
+				.collect(Collectors.toList());
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+				.thenApply(ignored -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+	}
+
+	@Override
+	public void close() throws IOException {
+		executor.shutdown();
+		httpClient.close();
+	}
+
+	private <T> T get(JavaType type, String uriTemplate, Object... uriVariables) {
+		URI uri = restTemplate.getUriTemplateHandler().expand(uriTemplate, uriVariables);
+		CachedResponse cached = cache != null ? cache.getIfPresent(uri) : null;
+		HttpHeaders headers = new HttpHeaders();
+		if (cached != null) {
+			headers.setIfNoneMatch(cached.getEtag());
+		}
+		ResponseEntity<byte[]> response = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers),
+				byte[].class);
+
+		byte[] body;
+		if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+			body = cached.getBody();
+		} else {
+			body = response.getBody();
+			String etag = response.getHeaders().getETag();
+			if (cache != null && etag != null && body != null) {
+				cache.put(uri, new CachedResponse(etag, body));
+			}
+		}
+		// Guarda o JSON e não o objeto: cada chamada recebe uma cópia que pode alterar à vontade
+		try {
+			return objectMapper.readValue(body, type);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Value
+	private static class CachedResponse {
+		String etag;
+		byte[] body;
+	}
+}
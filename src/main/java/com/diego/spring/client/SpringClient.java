@@ -16,6 +16,7 @@ import com.diego.spring.domain.Anime;
 import lombok.extern.log4j.Log4j2;
 
 ///RestTemplate Examples
+// Um RestTemplate novo por chamada (sem pool de conexões): para consumir a API em outro serviço use o AnimeClient
 
 @Log4j2
 public class SpringClient {
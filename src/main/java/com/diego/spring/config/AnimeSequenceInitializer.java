@@ -0,0 +1,64 @@
+package com.diego.spring.config;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.diego.spring.domain.Anime;
+
+import lombok.extern.log4j.Log4j2;
+
+// O id de Anime era IDENTITY e passou a SEQUENCE (anime_seq) para os inserts em lote. Em um banco que já tem
+// animes, a anime_seq criada pelo ddl-auto começa em 1 e o primeiro insert repetiria ids existentes. No startup,
+// com o schema já atualizado, a sequência é avançada para depois do max(id) atual.
+// Só avança, nunca volta: roda em todo startup e com várias instâncias subindo juntas.
+// MySQL não tem sequências, o Hibernate usa a tabela anime_seq (coluna next_val); nos demais, ALTER SEQUENCE.
+@Component
+@Log4j2
+public class AnimeSequenceInitializer implements SmartInitializingSingleton {
+
+	private final JdbcTemplate jdbcTemplate;
+	private final Dialect dialect;
+
+	public AnimeSequenceInitializer(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM anime", Long.class);
+		if (maxId == null) {
+			return;
+		}
+		// O otimizador pooled usa os allocationSize ids anteriores ao valor lido da sequência
+		long next = maxId + Anime.ID_ALLOCATION_SIZE + 1;
+		if (dialect.supportsSequences()) {
+			advanceSequence(next);
+		} else {
+			advanceTable(next);
+		}
+	}
+
+	private void advanceTable(long next) {
+		int updated = jdbcTemplate.update("UPDATE " + Anime.ID_SEQUENCE + " SET next_val = ? WHERE next_val < ?",
+				next, next);
+		if (updated > 0) {
+			log.info("Advanced {} to {}", Anime.ID_SEQUENCE, next);
+		}
+	}
+
+	// Ler o próximo valor consome um id, a lacuna não importa
+	private void advanceSequence(long next) {
+		Long current = jdbcTemplate.queryForObject(dialect.getSequenceNextValString(Anime.ID_SEQUENCE), Long.class);
+		if (current != null && current < next) {
+			jdbcTemplate.execute("ALTER SEQUENCE " + Anime.ID_SEQUENCE + " RESTART WITH " + next);
+			log.info("Advanced {} to {}", Anime.ID_SEQUENCE, next);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.diego.spring.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NullValue;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+// Caches em memória (Caffeine), métricas expostas em /actuator/prometheus (cache_gets, cache_evictions...)
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	public static final String ANIME_CACHE = "anime";
+	public static final String USER_CACHE = "users";
+
+	@Bean
+	public CacheManager cacheManager(
+			@Value("${anime.cache.anime.maximum-size:10000}") long animeMaximumSize,
+			@Value("${anime.cache.anime.ttl:10m}") Duration animeTtl,
+			@Value("${anime.cache.anime.negative-ttl:5s}") Duration animeNegativeTtl,
+			@Value("${anime.cache.users.maximum-size:1000}") long userMaximumSize,
+			@Value("${anime.cache.users.ttl:5m}") Duration userTtl) {
+		CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+		// Optional.empty() vira NullValue no cache (busca negativa)
+		cacheManager.setAllowNullValues(true);
+		cacheManager.registerCustomCache(ANIME_CACHE,
+				buildCache(animeMaximumSize, animeTtl, animeNegativeTtl));
+		cacheManager.registerCustomCache(USER_CACHE,
+				buildCache(userMaximumSize, userTtl, userTtl));
+
+		// put/evict só acontecem depois do commit da transação
+		return new TransactionAwareCacheManagerProxy(cacheManager);
+	}
+
+	private static Cache<Object, Object> buildCache(long maximumSize, Duration ttl, Duration negativeTtl) {
+		return Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new PositiveNegativeExpiry(ttl, negativeTtl))
+				.recordStats()
+				.build();
+	}
+
+	// Resultados negativos (NullValue) expiram antes dos positivos
+	private static class PositiveNegativeExpiry implements Expiry<Object, Object> {
+		private final long ttlNanos;
+		private final long negativeTtlNanos;
+
+		PositiveNegativeExpiry(Duration ttl, Duration negativeTtl) {
+			this.ttlNanos = ttl.toNanos();
+			this.negativeTtlNanos = negativeTtl.toNanos();
+		}
+
+		@Override
+		public long expireAfterCreate(Object key, Object value, long currentTime) {
+			return value == NullValue.INSTANCE ? negativeTtlNanos : ttlNanos;
+		}
+
+		@Override
+		public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
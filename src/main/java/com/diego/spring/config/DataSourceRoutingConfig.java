@@ -0,0 +1,58 @@
+package com.diego.spring.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Só com anime.datasource.replica.url: dois pools Hikari, "primary" (spring.datasource e spring.datasource.hikari)
+// e "replica", atrás do ReadWriteRoutingDataSource. Sem a propriedade vale o DataSource único do spring.datasource.
+// Os pools não são beans (o DataSourceInitializer de cada um dependeria do próprio DataSource de roteamento),
+// por isso as métricas hikaricp.* (tag pool) são ligadas aqui.
+
+@Configuration
+@ConditionalOnProperty(name = "anime.datasource.replica.url")
+public class DataSourceRoutingConfig {
+
+	@Bean
+	public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+			@Value("${anime.datasource.replica.url}") String replicaUrl,
+			@Value("${anime.datasource.replica.username:#{null}}") String replicaUsername,
+			@Value("${anime.datasource.replica.password:#{null}}") String replicaPassword,
+			@Value("${anime.datasource.replica.maximum-pool-size:10}") int replicaMaximumPoolSize,
+			@Value("${anime.datasource.read-your-writes:0s}") Duration readYourWrites) {
+		HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+		primary.setPoolName("primary");
+
+		// Usuário e senha do primário quando não informados
+		HikariDataSource replica = properties.initializeDataSourceBuilder()
+				.type(HikariDataSource.class)
+				.url(replicaUrl)
+				.username(replicaUsername != null ? replicaUsername : properties.determineUsername())
+				.password(replicaPassword != null ? replicaPassword : properties.determinePassword())
+				.build();
+		replica.setPoolName("replica");
+		replica.setMaximumPoolSize(replicaMaximumPoolSize);
+		replica.setReadOnly(true);
+
+		primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+		replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+		return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica, readYourWrites,
+				meterRegistry));
+	}
+}
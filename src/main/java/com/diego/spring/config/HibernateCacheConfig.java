@@ -0,0 +1,102 @@
+package com.diego.spring.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+// Cache de segundo nível do Hibernate (JCache sobre Caffeine) para Anime e CustomUser, e cache de consultas para
+// AnimeRepository.findByName e CustomUserRepository.findByUsername. Cada região tem tamanho e TTL próprios
+// (anime.cache.hibernate); regiões não configuradas aqui fazem o startup falhar (missing_cache_strategy=fail).
+// Métricas: cache.* (tag cache = região) e, com anime.metrics.hibernate-statistics, hibernate.second.level.cache.*
+// e hibernate.cache.query.*.
+// UPDATE/DELETE em JPQL (@Modifying) invalidam a região inteira da entidade e as consultas em cache da tabela.
+
+@Configuration
+public class HibernateCacheConfig {
+
+	public static final String ANIME_REGION = "anime-entity";
+	public static final String USER_REGION = "user-entity";
+	public static final String QUERY_REGION = "default-query-results-region";
+	// Instante da última escrita em cada tabela, invalida o cache de consultas: não pode expirar nem ser despejada
+	public static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+	@Bean
+	public HibernatePropertiesCustomizer hibernateCacheCustomizer(
+			@Value("${anime.cache.hibernate.anime.maximum-size:10000}") long animeMaximumSize,
+			@Value("${anime.cache.hibernate.anime.ttl:10m}") Duration animeTtl,
+			@Value("${anime.cache.hibernate.users.maximum-size:1000}") long userMaximumSize,
+			@Value("${anime.cache.hibernate.users.ttl:5m}") Duration userTtl,
+			@Value("${anime.cache.hibernate.query.maximum-size:1000}") long queryMaximumSize,
+			@Value("${anime.cache.hibernate.query.ttl:5m}") Duration queryTtl) {
+		// URI único: cada ApplicationContext (ex.: contextos de teste em paralelo) tem as próprias regiões
+		CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+				.getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+		cacheManager.createCache(ANIME_REGION, region(OptionalLong.of(animeMaximumSize), animeTtl));
+		cacheManager.createCache(USER_REGION, region(OptionalLong.of(userMaximumSize), userTtl));
+		cacheManager.createCache(QUERY_REGION, region(OptionalLong.of(queryMaximumSize), queryTtl));
+		cacheManager.createCache(TIMESTAMPS_REGION, region(OptionalLong.empty(), null));
+
+		return properties -> {
+			properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+			properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+			properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+			properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+			properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+		};
+	}
+
+	// Contadores por região (hits, misses, puts, removals), independentes das estatísticas do Hibernate.
+	// Ligados depois do startup: um MeterBinder exigiria o EntityManagerFactory durante a criação do MeterRegistry,
+	// do qual o DataSource de roteamento depende
+	@Bean
+	public SmartInitializingSingleton hibernateCacheMetrics(EntityManagerFactory entityManagerFactory,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		return () -> meterRegistry.ifAvailable(registry -> {
+			RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache()
+					.getRegionFactory();
+			if (regionFactory instanceof JCacheRegionFactory) {
+				CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+				for (String region : cacheManager.getCacheNames()) {
+					// Mesmas chaves de tag dos caches do Spring (CacheConfig): o Prometheus exige o mesmo conjunto
+					JCacheMetrics.monitor(registry, cacheManager.getCache(region),
+							Tags.of("cacheManager", "hibernate", "name", region));
+				}
+			}
+		});
+	}
+
+	private static CaffeineConfiguration<Object, Object> region(OptionalLong maximumSize, Duration ttl) {
+		CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+		configuration.setMaximumSize(maximumSize);
+		if (ttl != null) {
+			configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+		}
+		// Estatísticas JCache (JMX), lidas pelo JCacheMetrics
+		configuration.setStatisticsEnabled(true);
+		return configuration;
+	}
+}
@@ -0,0 +1,51 @@
+package com.diego.spring.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+
+import lombok.RequiredArgsConstructor;
+
+// GET /actuator/instrumentation
+// POST /actuator/instrumentation {"methods": true, "hibernateStatistics": true}
+@Endpoint(id = "instrumentation")
+@RequiredArgsConstructor
+public class InstrumentationEndpoint {
+
+	private final MethodTimingPostProcessor methodTimingPostProcessor;
+	private final Statistics statistics;
+	private final boolean hibernateStatisticsOnStartup;
+
+	// Só depois do startup: o HibernateMetrics ignora a SessionFactory se as estatísticas estiverem desligadas
+	// no momento em que é registrado
+	@EventListener(ContextRefreshedEvent.class)
+	public void applyStartupSettings() {
+		statistics.setStatisticsEnabled(hibernateStatisticsOnStartup);
+	}
+
+	@ReadOperation
+	public Map<String, Boolean> status() {
+		Map<String, Boolean> status = new LinkedHashMap<>();
+		status.put("methods", methodTimingPostProcessor.isEnabled());
+		status.put("hibernateStatistics", statistics.isStatisticsEnabled());
+		return status;
+	}
+
+	@WriteOperation
+	public Map<String, Boolean> update(@Nullable Boolean methods, @Nullable Boolean hibernateStatistics) {
+		if (methods != null) {
+			methodTimingPostProcessor.setEnabled(methods);
+		}
+		if (hibernateStatistics != null) {
+			statistics.setStatisticsEnabled(hibernateStatistics);
+		}
+		return status();
+	}
+}
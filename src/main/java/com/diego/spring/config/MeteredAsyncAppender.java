@@ -0,0 +1,47 @@
+package com.diego.spring.config;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+// AsyncAppender do Logback (perfil prod, logback-spring.xml) que conta o que deixa de ser escrito:
+// - discarded: INFO e abaixo descartados quando a fila passa do discardingThreshold
+// - queue-full: com neverBlock, qualquer evento recusado com a fila cheia, de qualquer nível (contagem aproximada:
+//   a fila pode esvaziar entre a verificação e o offer)
+// Exportados por MetricsConfig como anime.logging.events.dropped, junto com o tamanho da fila.
+public class MeteredAsyncAppender extends AsyncAppender {
+
+	private final LongAdder discarded = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	@Override
+	protected void append(ILoggingEvent event) {
+		// Mesma condição do AsyncAppenderBase: com discardingThreshold 0 nada é descartado antes do offer
+		int remainingCapacity = getRemainingCapacity();
+		boolean discardedBelowThreshold = remainingCapacity < getDiscardingThreshold() && super.isDiscardable(event);
+		boolean rejectedWhenFull = isNeverBlock() && remainingCapacity == 0 && !discardedBelowThreshold;
+		super.append(event);
+		if (rejectedWhenFull) {
+			rejected.increment();
+		}
+	}
+
+	// Chamado pelo AsyncAppenderBase só com a fila abaixo do discardingThreshold
+	@Override
+	protected boolean isDiscardable(ILoggingEvent event) {
+		boolean discardable = super.isDiscardable(event);
+		if (discardable) {
+			discarded.increment();
+		}
+		return discardable;
+	}
+
+	public long getDiscardedCount() {
+		return discarded.sum();
+	}
+
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+}
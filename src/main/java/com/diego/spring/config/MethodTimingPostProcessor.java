@@ -0,0 +1,120 @@
+package com.diego.spring.config;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.Repository;
+
+import com.diego.spring.service.AnimeService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Timer "anime.method" (tags class, method, exception) em todo método público do AnimeService e dos
+// repositórios. O interceptor fica por fora dos já existentes (@Transactional, @Cacheable), então o
+// tempo inclui o flush/commit e os acertos de cache. Desligado, o custo é a leitura de um volatile.
+public class MethodTimingPostProcessor implements BeanPostProcessor {
+
+	public static final String METRIC_NAME = "anime.method";
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+	private final Duration[] slos;
+	private volatile boolean enabled;
+
+	public MethodTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry, List<Duration> slos,
+			boolean enabled) {
+		this.meterRegistry = meterRegistry;
+		this.slos = slos.toArray(new Duration[0]);
+		this.enabled = enabled;
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		String className = timedClassName(bean);
+		if (className == null) {
+			return bean;
+		}
+		MethodInterceptor interceptor = new TimingInterceptor(className);
+		if (bean instanceof Advised && !((Advised) bean).isFrozen()) {
+			((Advised) bean).addAdvice(0, interceptor);
+			return bean;
+		}
+		ProxyFactory proxyFactory = new ProxyFactory(bean);
+		proxyFactory.setProxyTargetClass(true);
+		proxyFactory.addAdvice(interceptor);
+		return proxyFactory.getProxy(bean.getClass().getClassLoader());
+	}
+
+	// Nome usado na tag class: a interface do repositório (não o SimpleJpaRepository) ou a classe do serviço
+	private static String timedClassName(Object bean) {
+		if (bean instanceof Advised) {
+			for (Class<?> proxiedInterface : ((Advised) bean).getProxiedInterfaces()) {
+				if (Repository.class.isAssignableFrom(proxiedInterface)
+						&& proxiedInterface.getPackageName().startsWith("com.diego.spring")) {
+					return proxiedInterface.getSimpleName();
+				}
+			}
+		}
+		Class<?> targetClass = AopUtils.getTargetClass(bean);
+		return AnimeService.class.isAssignableFrom(targetClass) ? targetClass.getSimpleName() : null;
+	}
+
+	private class TimingInterceptor implements MethodInterceptor {
+		private final String className;
+		private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+		TimingInterceptor(String className) {
+			this.className = className;
+		}
+
+		@Override
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+			Method method = invocation.getMethod();
+			if (!enabled || !Modifier.isPublic(method.getModifiers()) || method.getDeclaringClass() == Object.class) {
+				return invocation.proceed();
+			}
+			long start = System.nanoTime();
+			try {
+				Object result = invocation.proceed();
+				timers.computeIfAbsent(method, key -> timer(key, "none")).record(System.nanoTime() - start,
+						TimeUnit.NANOSECONDS);
+				return result;
+			} catch (Throwable e) {
+				timer(method, e.getClass().getSimpleName()).record(System.nanoTime() - start,
+						TimeUnit.NANOSECONDS);
+				throw e;
+			}
+		}
+
+		private Timer timer(Method method, String exception) {
+			return Timer.builder(METRIC_NAME)
+					.description("AnimeService and repository method latency")
+					.tag("class", className)
+					.tag("method", method.getName())
+					.tag("exception", exception)
+					.publishPercentileHistogram()
+					.serviceLevelObjectives(slos)
+					.register(meterRegistry.getObject());
+		}
+	}
+}
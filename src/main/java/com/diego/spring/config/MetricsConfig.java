@@ -0,0 +1,78 @@
+package com.diego.spring.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Métricas além do http.server.requests, ligadas e desligadas em runtime por /actuator/instrumentation:
+// - anime.method: timers com histograma (percentis no Prometheus) e buckets de SLO por método
+// - hibernate.*: estatísticas do Hibernate (statements, entities.loads/fetches, query.executions.max...).
+//   hibernate.generate_statistics fica ligado para que os medidores sejam registrados no startup; a coleta
+//   em si começa desligada (anime.metrics.hibernate-statistics).
+// - anime.logging.*: eventos descartados e tamanho da fila do log assíncrono (perfil prod, MeteredAsyncAppender)
+
+@Configuration
+public class MetricsConfig {
+
+	// static: BeanPostProcessor precisa ser criado antes dos beans que ele processa
+	@Bean
+	public static MethodTimingPostProcessor methodTimingPostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${anime.metrics.methods.slo:5ms,10ms,50ms,100ms,500ms,1s}") List<Duration> slos,
+			@Value("${anime.metrics.methods.enabled:false}") boolean enabled) {
+		return new MethodTimingPostProcessor(meterRegistry, slos, enabled);
+	}
+
+	@Bean
+	public InstrumentationEndpoint instrumentationEndpoint(MethodTimingPostProcessor methodTimingPostProcessor,
+			EntityManagerFactory entityManagerFactory,
+			@Value("${anime.metrics.hibernate-statistics:false}") boolean hibernateStatistics) {
+		return new InstrumentationEndpoint(methodTimingPostProcessor,
+				entityManagerFactory.unwrap(SessionFactory.class).getStatistics(), hibernateStatistics);
+	}
+
+	// Appenders criados pelo Logback antes do contexto, procurados no logger raiz
+	@Bean
+	public MeterBinder asyncLoggingMetrics() {
+		return registry -> {
+			if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext)) {
+				return;
+			}
+			Logger root = ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(Logger.ROOT_LOGGER_NAME);
+			root.iteratorForAppenders().forEachRemaining(appender -> {
+				if (appender instanceof MeteredAsyncAppender) {
+					bindAsyncAppender(registry, (MeteredAsyncAppender) appender);
+				}
+			});
+		};
+	}
+
+	private static void bindAsyncAppender(MeterRegistry registry, MeteredAsyncAppender appender) {
+		FunctionCounter.builder("anime.logging.events.dropped", appender, MeteredAsyncAppender::getDiscardedCount)
+				.tags("appender", appender.getName(), "reason", "discarded")
+				.register(registry);
+		FunctionCounter.builder("anime.logging.events.dropped", appender, MeteredAsyncAppender::getRejectedCount)
+				.tags("appender", appender.getName(), "reason", "queue-full")
+				.register(registry);
+		Gauge.builder("anime.logging.queue.size", appender, MeteredAsyncAppender::getNumberOfElementsInQueue)
+				.tag("appender", appender.getName())
+				.register(registry);
+		Gauge.builder("anime.logging.queue.capacity", appender, MeteredAsyncAppender::getQueueSize)
+				.tag("appender", appender.getName())
+				.register(registry);
+	}
+}
@@ -0,0 +1,96 @@
+package com.diego.spring.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Transações @Transactional(readOnly = true) usam a réplica, todo o resto o primário. A decisão acontece ao pegar
+// a conexão, por isso este DataSource fica atrás de um LazyConnectionDataSourceProxy: o JpaTransactionManager só
+// marca a transação como read-only depois de abrir a conexão, o proxy adia a escolha até o primeiro comando SQL.
+// Read-your-writes: por readYourWrites depois do commit de uma escrita, as leituras do mesmo usuário continuam
+// no primário (a réplica pode ainda não ter recebido a alteração).
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+	public static final String METRIC_NAME = "anime.datasource.routes";
+
+	public enum Route {
+		PRIMARY, REPLICA
+	}
+
+	// null com a janela desligada
+	private final Cache<String, Boolean> recentWriters;
+	private final Counter writes;
+	private final Counter reads;
+	private final Counter readYourWritesReads;
+
+	public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites,
+			MeterRegistry meterRegistry) {
+		setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+		setDefaultTargetDataSource(primary);
+		afterPropertiesSet();
+		this.recentWriters = readYourWrites.isZero() ? null : Caffeine.newBuilder()
+				.expireAfterWrite(readYourWrites)
+				.maximumSize(100_000)
+				.build();
+		this.writes = counter(meterRegistry, Route.PRIMARY, "write");
+		this.reads = counter(meterRegistry, Route.REPLICA, "read");
+		this.readYourWritesReads = counter(meterRegistry, Route.PRIMARY, "read-your-writes");
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			if (recentWriters != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+				registerWrite();
+			}
+			writes.increment();
+			return Route.PRIMARY;
+		}
+		String user = currentUser();
+		if (recentWriters != null && user != null && recentWriters.getIfPresent(user) != null) {
+			readYourWritesReads.increment();
+			return Route.PRIMARY;
+		}
+		reads.increment();
+		return Route.REPLICA;
+	}
+
+	// A janela começa no commit; rollback não conta como escrita
+	private void registerWrite() {
+		String user = currentUser();
+		if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				recentWriters.put(user, Boolean.TRUE);
+			}
+		});
+	}
+
+	private static String currentUser() {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+	}
+
+	private static Counter counter(MeterRegistry meterRegistry, Route route, String reason) {
+		return Counter.builder(METRIC_NAME)
+				.tag("route", route.name().toLowerCase())
+				.tag("reason", reason)
+				.register(meterRegistry);
+	}
+}
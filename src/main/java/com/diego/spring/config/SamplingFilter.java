@@ -0,0 +1,41 @@
+package com.diego.spring.config;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+// Deixa passar 1 a cada <rate> eventos dos loggers que começam com <loggerName>, os demais seguem normalmente.
+// No perfil prod limita o org.hibernate.SQL_SLOW: sob carga todas as consultas ficam lentas ao mesmo tempo.
+public class SamplingFilter extends Filter<ILoggingEvent> {
+
+	private final AtomicLong counter = new AtomicLong();
+	private String loggerName;
+	private int rate = 1;
+
+	@Override
+	public FilterReply decide(ILoggingEvent event) {
+		if (!isStarted() || loggerName == null || !event.getLoggerName().startsWith(loggerName)) {
+			return FilterReply.NEUTRAL;
+		}
+		return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+	}
+
+	@Override
+	public void start() {
+		if (rate < 1) {
+			addError("rate must be at least 1 for filter " + getName());
+			return;
+		}
+		super.start();
+	}
+
+	public void setLoggerName(String loggerName) {
+		this.loggerName = loggerName;
+	}
+
+	public void setRate(int rate) {
+		this.rate = rate;
+	}
+}
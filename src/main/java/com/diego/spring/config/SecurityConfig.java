@@ -1,14 +1,28 @@
 package com.diego.spring.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
+import com.diego.spring.security.AuthenticationRateLimitFilter;
+import com.diego.spring.security.RateLimitFilter;
+import com.diego.spring.security.RateLimiter;
+import com.diego.spring.security.TokenAuthenticationFilter;
+import com.diego.spring.security.TokenService;
 import com.diego.spring.service.CustomUserDetailsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
@@ -21,22 +35,61 @@ import lombok.extern.log4j.Log4j2;
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
 	private final CustomUserDetailsService customUserDetailsService;
+	private final TokenService tokenService;
+	private final RateLimiter rateLimiter;
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+	
+	// Token bucket por usuário/IP, ver RateLimiter
+	@Value("${anime.rate-limit.enabled:true}")
+	private boolean rateLimitEnabled;
+	
+	// Falhas de autenticação por IP, ver AuthenticationRateLimitFilter
+	@Value("${anime.rate-limit.authentication.capacity:10}")
+	private int authenticationCapacity;
+	
+	@Value("${anime.rate-limit.authentication.refill-per-second:0.1}")
+	private double authenticationRefillPerSecond;
+	
+	@Value("${anime.rate-limit.max-keys:100000}")
+	private long rateLimitMaxKeys;
+	
+	// true: sem HttpSession e sem formLogin, apenas token (Bearer) e httpBasic
+	@Value("${anime.security.stateless:false}")
+	private boolean stateless;
 	
 	@Override
 	protected void configure(HttpSecurity http) throws Exception {
 		// Todas as requisições exigem autenticação básica
 		http.csrf().disable()
 			//.csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse()).and()
+			.addFilterBefore(new TokenAuthenticationFilter(tokenService), UsernamePasswordAuthenticationFilter.class)
 			.authorizeRequests()
+			.antMatchers("/auth/login").permitAll()
 			.antMatchers("/anime/admin/**").hasRole("ADMIN") // Regras mais restritivas primeiro
 			.antMatchers("/anime/**").hasRole("USER")
+			.antMatchers("/actuator/instrumentation/**").hasRole("ADMIN")
 			.antMatchers("/actuator/**").permitAll()
 			.anyRequest()
 			.authenticated()
 			.and()
-			.formLogin()
-			.and()
 			.httpBasic();
+		
+		// Depois da autenticação (token ou httpBasic) para usar o usuário como chave, antes de qualquer controller.
+		// As tentativas de autenticação são limitadas por IP antes de autenticar, sem consultar o banco.
+		if (rateLimitEnabled) {
+			RateLimiter authenticationRateLimiter = new RateLimiter(meterRegistry, RateLimiter.METRIC_NAME
+					+ ".authentication", authenticationCapacity, authenticationRefillPerSecond, rateLimitMaxKeys);
+			http.addFilterBefore(new AuthenticationRateLimitFilter(authenticationRateLimiter, objectMapper),
+					TokenAuthenticationFilter.class);
+			http.addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), BasicAuthenticationFilter.class);
+		}
+		
+		if (stateless) {
+			http.sessionManagement().sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+		} else {
+			http.formLogin();
+		}
 	}
 	
 	@Override
@@ -46,4 +99,11 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 		// auth.inMemoryAuthentication()
 		auth.userDetailsService(customUserDetailsService).passwordEncoder(passwordEncoder);
 	}
+	
+	// Usado pelo AuthController para validar a senha no login
+	@Bean
+	@Override
+	public AuthenticationManager authenticationManagerBean() throws Exception {
+		return super.authenticationManagerBean();
+	}
 }
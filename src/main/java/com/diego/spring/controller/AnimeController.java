@@ -1,31 +1,63 @@
 package com.diego.spring.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 
 import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.diego.spring.domain.Anime;
+import com.diego.spring.request.AnimeBulkDeleteRequestBody;
+import com.diego.spring.request.AnimePatchRequestBody;
 import com.diego.spring.request.AnimePostRequestBody;
 import com.diego.spring.request.AnimePutRequestBody;
+import com.diego.spring.response.AnimeBatchResponse;
+import com.diego.spring.response.AnimeBulkDeleteResponse;
+import com.diego.spring.response.AnimeIngestStatus;
+import com.diego.spring.response.AnimeMultiGetResponse;
+import com.diego.spring.response.AnimeSearchResponse;
+import com.diego.spring.response.AnimeSuggestion;
+import com.diego.spring.response.KeysetPageResponse;
+import com.diego.spring.response.PageResponse;
+import com.diego.spring.service.AnimeBatchService;
+import com.diego.spring.service.AnimeIngestService;
+import com.diego.spring.service.AnimeSearchService;
 import com.diego.spring.service.AnimeService;
+import com.diego.spring.service.AnimeSuggestService;
+import com.diego.spring.util.ETagUtil;
+import com.diego.spring.util.KeysetCursor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -42,16 +74,70 @@ public class AnimeController {
 	@Autowired
 	private AnimeService animeService;
 	
+	@Autowired
+	private AnimeBatchService animeBatchService;
+	
+	@Autowired
+	private AnimeIngestService animeIngestService;
+	
+	@Autowired
+	private AnimeSuggestService animeSuggestService;
+	
+	@Autowired
+	private AnimeSearchService animeSearchService;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
+	private static final int STREAM_FLUSH_INTERVAL = 100;
+	
+	private static final String PREFER = "Prefer";
+	private static final String RESPOND_ASYNC = "respond-async";
+	
+	// Cliente pode guardar a resposta, mas deve revalidar com If-None-Match
+	private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+	
 	// Paginado para não devolver a lista toda
 	@GetMapping 
 	// Swagger SpringDoc
 	@Operation(summary = "List all animes paginated.", description = "The default size is 20, use parameter <size> "
-			+ "to change the default value.", tags = "anime")
-	public ResponseEntity<Page<Anime>> list(@ParameterObject Pageable pageable){
+			+ "to change the default value. Send <If-None-Match> with the previous ETag to receive 304 "
+			+ "when nothing changed.", tags = "anime")
+	public ResponseEntity<PageResponse<Anime>> list(@ParameterObject Pageable pageable,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
 		//log.info(dateUitl.formatLocalDateTimeDatabaseStyle(LocalDateTime.now()));
 		//GET passando tamanho máximo da pagina e a pagina: localhost:8080/anime?size=5&page=1&sort=name,desc
 		
-		return new ResponseEntity<>(animeService.listAll(pageable), HttpStatus.OK); 
+		// ETag do estado da tabela (um agregado), calculado antes da página: na dúvida o cliente baixa de novo
+		String etag = ETagUtil.of(animeService.findCatalogVersion());
+		if (ETagUtil.matches(ifNoneMatch, etag)) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+		}
+		return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(PageResponse.of(animeService.listAll(pageable))); 
+	}
+	
+	// Paginação por keyset: localhost:8080/anime?mode=keyset&size=5&sort=name,desc
+	// e depois localhost:8080/anime?mode=keyset&size=5&cursor=<nextCursor>
+	@GetMapping(params = "mode=keyset")
+	@Operation(summary = "List animes using keyset (cursor) pagination.", description = "Does not execute COUNT "
+			+ "queries, use <nextCursor> from the response to fetch the next page. Sort by id or name.", tags = "anime")
+	public ResponseEntity<KeysetPageResponse<Anime>> listKeyset(@RequestParam(required = false) String cursor,
+			@ParameterObject Pageable pageable){
+		KeysetCursor keysetCursor = cursor == null || cursor.isEmpty() ? null : KeysetCursor.decode(cursor);
+		Sort.Order order = keysetCursor != null ? keysetCursor.getOrder() : KeysetCursor.resolveOrder(pageable.getSort());
+		
+		Slice<Anime> slice = animeService.listAllKeyset(keysetCursor, order, pageable.getPageSize());
+		List<Anime> content = slice.getContent();
+		String nextCursor = slice.hasNext()
+				? KeysetCursor.after(order, content.get(content.size() - 1)).encode()
+				: null;
+		
+		return ResponseEntity.ok(KeysetPageResponse.<Anime>builder()
+				.content(content)
+				.size(slice.getSize())
+				.hasNext(slice.hasNext())
+				.nextCursor(nextCursor)
+				.build());
 	}
 	
 	@GetMapping("/all")
@@ -61,21 +147,85 @@ public class AnimeController {
 		return new ResponseEntity<>(animeService.listAllNonPageable(), HttpStatus.OK); 
 	}
 	
+	// Streaming: localhost:8080/anime/all?stream=true
+	// Accept: application/x-ndjson -> um anime por linha, caso contrário um array JSON
+	@GetMapping(value = "/all", params = "stream=true")
+	@Operation(summary = "Stream all animes as they are read from the database.", description = "Send "
+			+ "<Accept: application/x-ndjson> for newline delimited JSON, otherwise a JSON array is written.", tags = "anime")
+	public ResponseEntity<StreamingResponseBody> streamAll(
+			@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept){
+		boolean ndjson = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+		
+		StreamingResponseBody body = outputStream -> {
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+				if (ndjson) {
+					generator.setRootValueSeparator(null);
+				} else {
+					generator.writeStartArray();
+				}
+				int[] written = {0};
+				animeService.forEachAnime(anime -> writeStreamed(generator, anime, ndjson, ++written[0]));
+				if (!ndjson) {
+					generator.writeEndArray();
+				}
+			}
+		};
+		
+		return ResponseEntity.ok()
+				.contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+				.body(body);
+	}
+	
+	private static void writeStreamed(JsonGenerator generator, Anime anime, boolean ndjson, int count) {
+		try {
+			generator.writeObject(anime);
+			if (ndjson) {
+				generator.writeRaw('\n');
+			}
+			if (count % STREAM_FLUSH_INTERVAL == 0) {
+				generator.flush();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
 	@GetMapping("/{id}")
-	public ResponseEntity<Anime> findByID(@PathVariable long id){
+	public ResponseEntity<Anime> findByID(@PathVariable long id,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
 		//log.info(dateUitl.formatLocalDateTimeDatabaseStyle(LocalDateTime.now()));
-
-		return ResponseEntity.ok(animeService.findByIdOrThrowBadRequestException(id));
+		
+		// Revalidação: compara só a versão (do cache do findById quando houver), sem carregar nem serializar o Anime
+		if (ifNoneMatch != null) {
+			Optional<Long> version = animeService.findVersionByIdCacheFirst(id);
+			if (version.isPresent() && ETagUtil.matches(ifNoneMatch, ETagUtil.of(id, version.get()))) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+						.eTag(ETagUtil.of(id, version.get()))
+						.cacheControl(REVALIDATE)
+						.build();
+			}
+		}
+		Anime anime = animeService.findByIdOrThrowBadRequestException(id);
+		return ResponseEntity.ok().eTag(ETagUtil.of(anime)).cacheControl(REVALIDATE).body(anime);
 	}
 	
 	@GetMapping("by-id/{id}")
 	public ResponseEntity<Anime> findByIDAuthentication(@PathVariable long id,
 			@AuthenticationPrincipal UserDetails userDetails){
-		log.info(userDetails);
+		// debug: toString() do usuário inclui o hash da senha e a chamada é feita a cada requisição
+		log.debug("Find by id {} requested by {}", id, userDetails.getUsername());
 
 		return ResponseEntity.ok(animeService.findByIdOrThrowBadRequestException(id));
 	}
 	
+	// Vários animes de uma vez: localhost:8080/anime/by-ids?ids=3,1,2 (mesma ordem, ids inexistentes em <missing>)
+	@GetMapping("/by-ids")
+	@Operation(summary = "Find many animes by id in a single request.", description = "Keeps the order of <ids>, "
+			+ "ids that do not exist are returned in <missing>. At most 1000 ids.", tags = "anime")
+	public ResponseEntity<AnimeMultiGetResponse> findByIds(@RequestParam List<Long> ids){
+		return ResponseEntity.ok(animeService.findAllByIds(ids));
+	}
+	
 	@GetMapping("/find")
 	public ResponseEntity<List<Anime>> findByName(@RequestParam String name){
 		//log.info(dateUitl.formatLocalDateTimeDatabaseStyle(LocalDateTime.now()));
@@ -83,20 +233,103 @@ public class AnimeController {
 		return ResponseEntity.ok(animeService.findByName(name));
 	}
 	
+	// Autocomplete: localhost:8080/anime/suggest?prefix=nar&limit=10 (índice em memória, não consulta o banco)
+	@GetMapping("/suggest")
+	@Operation(summary = "Suggest animes whose name starts with the prefix.", description = "Case and accent "
+			+ "insensitive, ordered by name. The maximum <limit> is 50. Suggestions carry no version: fetch the "
+			+ "anime before updating it.", tags = "anime")
+	public ResponseEntity<List<AnimeSuggestion>> suggest(@RequestParam String prefix,
+			@RequestParam(defaultValue = "10") int limit){
+		return ResponseEntity.ok(animeSuggestService.suggest(prefix, limit));
+	}
+	
+	// Busca textual: localhost:8080/anime/search?q=narto&page=0&size=20 (tolera erros de digitação e palavras parciais)
+	@GetMapping("/search")
+	@Operation(summary = "Full-text search over anime names ordered by relevance.", description = "Every word must "
+			+ "match exactly, as a prefix or with a typo. Only the first 1000 results can be paginated.", tags = "anime")
+	public ResponseEntity<AnimeSearchResponse> search(@RequestParam String q,
+			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size){
+		return ResponseEntity.ok(animeSearchService.search(q, page, size));
+	}
+	
+	@PostMapping("/admin/search/reindex")
+	@Operation(summary = "Rebuild the full-text search index from the database.", tags = "anime")
+	public ResponseEntity<Long> reindex(){
+		return ResponseEntity.ok(animeSearchService.rebuild());
+	}
+	
+	// Com "Prefer: respond-async" (RFC 7240) e anime.ingest.async-enabled: valida, enfileira e responde 202 com o id
+	// de acompanhamento em Location; 503 com a fila cheia. Desligado, o Prefer é ignorado e a gravação é síncrona.
 	@PostMapping
 	//@PreAuthorize("hasRole('ADMIN')")
-	public ResponseEntity<Anime> save(@RequestBody @Valid AnimePostRequestBody animePostRequestBody){
-		return new ResponseEntity<>(animeService.save(animePostRequestBody), HttpStatus.CREATED);
+	@Operation(summary = "Create an anime.", description = "With <Prefer: respond-async> and async ingest enabled "
+			+ "the anime is queued and written in batches. Returns 202 with a tracking id, follow it at <Location>.",
+			tags = "anime")
+	public ResponseEntity<?> save(@RequestBody @Valid AnimePostRequestBody animePostRequestBody,
+			@RequestHeader(value = PREFER, required = false) String prefer){
+		if (!prefersRespondAsync(prefer) || !animeIngestService.isEnabled()) {
+			return new ResponseEntity<>(animeService.save(animePostRequestBody), HttpStatus.CREATED);
+		}
+		AnimeIngestStatus status = animeIngestService.submit(animePostRequestBody);
+		return ResponseEntity.accepted()
+				.location(URI.create("/anime/ingest/" + status.getTrackingId()))
+				.header("Preference-Applied", RESPOND_ASYNC)
+				.body(status);
+	}
+	
+	@GetMapping("/ingest/{trackingId}")
+	@Operation(summary = "Status of an asynchronous create.", description = "PENDING until the anime is written, "
+			+ "then CREATED with its id or FAILED with the reason.", tags = "anime")
+	public ResponseEntity<AnimeIngestStatus> ingestStatus(@PathVariable String trackingId) {
+		return ResponseEntity.ok(animeIngestService.findStatusOrThrowBadRequestException(trackingId));
 	}
 	
+	// Carga em lote: array JSON ou NDJSON de AnimePostRequestBody, lido item a item do corpo da requisição
+	@PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+	@Operation(summary = "Create animes in batch.", description = "Accepts a JSON array or newline delimited JSON. "
+			+ "Items are validated and inserted in chunks, each chunk in its own transaction.", tags = "anime")
+	public ResponseEntity<AnimeBatchResponse> saveBatch(HttpServletRequest request) throws IOException {
+		try (MappingIterator<AnimePostRequestBody> items = objectMapper.readerFor(AnimePostRequestBody.class)
+				.readValues(request.getInputStream())) {
+			return ResponseEntity.ok(animeBatchService.ingest(items));
+		}
+	}
+	
+	// Versão esperada no corpo (version) ou no If-Match (ETag do GET /anime/{id}), 409 se o anime mudou
 	@PutMapping
-	public ResponseEntity<Void> replace(@RequestBody AnimePutRequestBody animePutRequestBody){
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "204", description = "Success operation."),
+			@ApiResponse(responseCode = "400", description = "When Anime does not exist in Database."),
+			@ApiResponse(responseCode = "409", description = "When Anime was modified since the given version.")
+	})
+	public ResponseEntity<Void> replace(@RequestBody @Valid AnimePutRequestBody animePutRequestBody,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
 		//log.info(dateUitl.formatLocalDateTimeDatabaseStyle(LocalDateTime.now()));
-
+		
+		if (ifMatch != null && animePutRequestBody.getId() != null) {
+			animePutRequestBody.setVersion(ETagUtil.versionOf(ifMatch, animePutRequestBody.getId()));
+		}
 		animeService.replace(animePutRequestBody);
 		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 	}
 	
+	// Altera só os campos enviados: localhost:8080/anime/1 {"name": "Overlord"}
+	@PatchMapping("/{id}")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "204", description = "Success operation."),
+			@ApiResponse(responseCode = "400", description = "When Anime does not exist in Database."),
+			@ApiResponse(responseCode = "409", description = "When Anime was modified since the given version.")
+	})
+	public ResponseEntity<Void> patch(@PathVariable long id,
+			@RequestBody @Valid AnimePatchRequestBody animePatchRequestBody,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		if (ifMatch != null) {
+			animePatchRequestBody.setVersion(ETagUtil.versionOf(ifMatch, id));
+		}
+		animeService.patch(id, animePatchRequestBody);
+		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+	}
+	
 	@DeleteMapping("/admin/{id}")
 	// Swagger SpringDoc
 	@ApiResponses(value = {
@@ -109,4 +342,28 @@ public class AnimeController {
 		animeService.delete(id);
 		return new ResponseEntity<>(HttpStatus.NO_CONTENT);
 	}
+	
+	// Exclusão em massa: {"ids": [1, 2, 3]} ou {"name": "Anime A1"}
+	@DeleteMapping("/admin")
+	@Operation(summary = "Delete animes in bulk by ids or by name.", description = "Deletes are executed in chunks, "
+			+ "each chunk in its own transaction. Ids that do not exist are reported in <notFound>.", tags = "anime")
+	public ResponseEntity<AnimeBulkDeleteResponse> deleteAll(
+			@RequestBody @Valid AnimeBulkDeleteRequestBody animeBulkDeleteRequestBody){
+		return ResponseEntity.ok(animeBatchService.delete(animeBulkDeleteRequestBody));
+	}
+	
+	// Prefer é uma lista separada por vírgula (ex.: "respond-async, wait=5" ou "return=minimal; x, respond-async"),
+	// cada preferência com valor e parâmetros opcionais; o nome não diferencia maiúsculas
+	private static boolean prefersRespondAsync(String prefer) {
+		if (prefer == null) {
+			return false;
+		}
+		for (String preference : prefer.split(",")) {
+			String name = preference.split("[=;]", 2)[0].trim();
+			if (RESPOND_ASYNC.equalsIgnoreCase(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
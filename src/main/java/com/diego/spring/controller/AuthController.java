@@ -0,0 +1,39 @@
+package com.diego.spring.controller;
+
+import javax.validation.Valid;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.diego.spring.request.LoginRequestBody;
+import com.diego.spring.response.TokenResponse;
+import com.diego.spring.security.TokenService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@RequestMapping("auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+	private final AuthenticationManager authenticationManager;
+	private final TokenService tokenService;
+
+	// Verifica a senha (bcrypt) uma única vez e devolve um token de curta duração
+	@PostMapping("/login")
+	@Operation(summary = "Authenticate and issue a signed Bearer token.", tags = "auth")
+	public ResponseEntity<TokenResponse> login(@RequestBody @Valid LoginRequestBody loginRequestBody) {
+		Authentication authentication = authenticationManager.authenticate(
+				new UsernamePasswordAuthenticationToken(loginRequestBody.getUsername(), loginRequestBody.getPassword()));
+
+		return ResponseEntity.ok(tokenService.issue((UserDetails) authentication.getPrincipal()));
+	}
+}
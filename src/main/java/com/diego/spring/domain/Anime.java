@@ -4,8 +4,17 @@ import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotEmpty;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.diego.spring.config.HibernateCacheConfig;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,14 +24,27 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ANIME_REGION) // segundo nível
+@Table(indexes = @Index(name = "idx_anime_name_id", columnList = "name, id")) // findByName e keyset por nome
 @Builder // Anime.builder()
 public class Anime {
 	
+	public static final String ID_SEQUENCE = "anime_seq";
+	public static final int ID_ALLOCATION_SIZE = 50;
+	
+	// SEQUENCE (tabela anime_seq no MySQL) em vez de IDENTITY permite inserts em lote (hibernate.jdbc.batch_size)
+	// Bancos existentes: AnimeSequenceInitializer avança anime_seq para depois do max(id) no startup
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+	@SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
 	private Long id;
 	
 	@NotEmpty(message = "The anime name cannot be empty.")
 	private String name;
 	
+	// Incrementada pelo Hibernate a cada UPDATE, usada no ETag (GET /anime/{id}) e no controle de concorrência
+	// long (e não Long): linhas antigas recebem 0 no ddl-auto e versão nula faria o merge tratar a entidade como nova
+	@Version
+	private long version;
+	
 }
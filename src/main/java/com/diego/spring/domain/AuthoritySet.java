@@ -0,0 +1,71 @@
+package com.diego.spring.domain;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+// Conjunto imutável de authorities a partir da coluna "ROLE_USER,ROLE_ADMIN". Existem poucas combinações
+// distintas, então cada uma é interpretada uma única vez e compartilhada entre todos os usuários.
+public final class AuthoritySet {
+
+	private static final int MAX_INTERNED = 1024;
+	private static final AuthoritySet EMPTY = new AuthoritySet(Collections.emptySet());
+	private static final ConcurrentMap<String, AuthoritySet> INTERNED = new ConcurrentHashMap<>();
+
+	private final Set<String> names;
+	private final Set<GrantedAuthority> grantedAuthorities;
+
+	private AuthoritySet(Set<String> names) {
+		this.names = Collections.unmodifiableSet(names);
+		this.grantedAuthorities = Collections.unmodifiableSet(names.stream()
+				.map(SimpleGrantedAuthority::new)
+				.collect(Collectors.<GrantedAuthority, Set<GrantedAuthority>>toCollection(LinkedHashSet::new)));
+	}
+
+	public static AuthoritySet of(String authorities) {
+		if (authorities == null || authorities.isBlank()) {
+			return EMPTY;
+		}
+		AuthoritySet authoritySet = INTERNED.get(authorities);
+		if (authoritySet != null) {
+			return authoritySet;
+		}
+		authoritySet = parse(authorities);
+		// Limite só para o caso de valores arbitrários; nunca é atingido com os papéis da aplicação
+		if (INTERNED.size() < MAX_INTERNED) {
+			AuthoritySet previous = INTERNED.putIfAbsent(authorities, authoritySet);
+			return previous != null ? previous : authoritySet;
+		}
+		return authoritySet;
+	}
+
+	public Set<GrantedAuthority> getGrantedAuthorities() {
+		return grantedAuthorities;
+	}
+
+	public boolean contains(String authority) {
+		return names.contains(authority);
+	}
+
+	@Override
+	public String toString() {
+		return String.join(",", names);
+	}
+
+	// Ignora espaços e itens vazios ("ROLE_USER, ROLE_ADMIN,")
+	private static AuthoritySet parse(String authorities) {
+		Set<String> names = Arrays.stream(authorities.split(","))
+				.map(String::trim)
+				.filter(name -> !name.isEmpty())
+				.map(String::intern)
+				.collect(Collectors.toCollection(LinkedHashSet::new));
+		return names.isEmpty() ? EMPTY : new AuthoritySet(names);
+	}
+}
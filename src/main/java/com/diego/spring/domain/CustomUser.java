@@ -1,19 +1,21 @@
 package com.diego.spring.domain;
 
-import java.util.Arrays;
 import java.util.Collection;
-import java.util.stream.Collectors;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.validation.constraints.NotEmpty;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.diego.spring.config.HibernateCacheConfig;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,6 +26,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Entity
 @Builder
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_REGION) // segundo nível
+@EntityListeners(CustomUserCacheEvictionListener.class)
 public class CustomUser implements UserDetails {
 
 	@Id
@@ -37,12 +41,14 @@ public class CustomUser implements UserDetails {
 	private String password;
 	private String authorities;
 
+	// Chamado várias vezes por requisição pelo Spring Security: o conjunto é interpretado uma vez e reaproveitado
 	@Override
 	public Collection<? extends GrantedAuthority> getAuthorities() {
-		// TODO Auto-generated method stub
-		return Arrays.stream(authorities.split(","))
-				.map(SimpleGrantedAuthority::new)
-				.collect(Collectors.toList());
+		return AuthoritySet.of(authorities).getGrantedAuthorities();
+	}
+
+	public boolean hasAuthority(String authority) {
+		return AuthoritySet.of(authorities).contains(authority);
 	}
 
 	@Override
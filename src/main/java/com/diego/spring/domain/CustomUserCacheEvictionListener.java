@@ -0,0 +1,37 @@
+package com.diego.spring.domain;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import com.diego.spring.config.CacheConfig;
+
+import lombok.RequiredArgsConstructor;
+
+// Limpa o cache de usuários sempre que um CustomUser é criado, alterado ou removido.
+// Limpa o cache inteiro porque o username antigo não está disponível no @PostUpdate.
+@Component
+@RequiredArgsConstructor
+public class CustomUserCacheEvictionListener {
+
+	private final ObjectProvider<CacheManager> cacheManager;
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void evict(CustomUser customUser) {
+		CacheManager manager = cacheManager.getIfAvailable();
+		if (manager == null) {
+			return;
+		}
+		Cache cache = manager.getCache(CacheConfig.USER_CACHE);
+		if (cache != null) {
+			cache.clear();
+		}
+	}
+}
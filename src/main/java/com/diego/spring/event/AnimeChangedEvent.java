@@ -0,0 +1,27 @@
+package com.diego.spring.event;
+
+import lombok.Value;
+
+// Publicado pelo AnimeService a cada escrita, entregue aos listeners depois do commit
+@Value
+public class AnimeChangedEvent {
+	
+	public enum Type { SAVED, UPDATED, DELETED }
+	
+	Type type;
+	Long id;
+	// null quando Type.DELETED
+	String name;
+	
+	public static AnimeChangedEvent saved(Long id, String name) {
+		return new AnimeChangedEvent(Type.SAVED, id, name);
+	}
+	
+	public static AnimeChangedEvent updated(Long id, String name) {
+		return new AnimeChangedEvent(Type.UPDATED, id, name);
+	}
+	
+	public static AnimeChangedEvent deleted(Long id) {
+		return new AnimeChangedEvent(Type.DELETED, id, null);
+	}
+}
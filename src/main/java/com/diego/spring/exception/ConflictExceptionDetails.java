@@ -0,0 +1,10 @@
+package com.diego.spring.exception;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+@Getter
+@SuperBuilder
+public class ConflictExceptionDetails extends ExceptionDetails {
+
+}
@@ -4,8 +4,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,6 +15,10 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import com.diego.spring.exception.BadRequestException;
 import com.diego.spring.exception.BadRequestExceptionDetails;
+import com.diego.spring.exception.ConflictException;
+import com.diego.spring.exception.ConflictExceptionDetails;
+import com.diego.spring.exception.ServiceUnavailableException;
+import com.diego.spring.exception.ServiceUnavailableExceptionDetails;
 import com.diego.spring.exception.ValidationExceptionDetails;
 
 @ControllerAdvice
@@ -30,11 +36,44 @@ public class RestRequestHandler {
 					.build(), HttpStatus.BAD_REQUEST);
 	}
 	
+	@ExceptionHandler(ConflictException.class)
+	public ResponseEntity<ConflictExceptionDetails> handlerConflictException(ConflictException ce) {
+		return new ResponseEntity<>(
+				ConflictExceptionDetails.builder()
+					.timestamp(LocalDateTime.now())
+					.status(HttpStatus.CONFLICT.value())
+					.title("Conflict exception, reload the resource and try again")
+					.details(ce.getMessage())
+					.developerMessage(ce.getClass().getName())
+					.build(), HttpStatus.CONFLICT);
+	}
+	
+	// Espera por uma leitura em andamento (SingleFlight) passou do limite: o cliente pode tentar de novo em seguida
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public ResponseEntity<ServiceUnavailableExceptionDetails> handlerServiceUnavailableException(
+			ServiceUnavailableException sue) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(ServiceUnavailableExceptionDetails.builder()
+					.timestamp(LocalDateTime.now())
+					.status(HttpStatus.SERVICE_UNAVAILABLE.value())
+					.title("Service unavailable, try again later")
+					.details(sue.getMessage())
+					.developerMessage(sue.getClass().getName())
+					.build());
+	}
+	
 	@ExceptionHandler(MethodArgumentNotValidException.class)
 	public ResponseEntity<ValidationExceptionDetails> handlerMethodArgumentNotValidException(
 			MethodArgumentNotValidException ex) {
+		return validationExceptionDetails(ex.getBindingResult(), ex);
+	}
+	
+	// Também usado pela pilha reativa (WebExchangeBindException)
+	protected ResponseEntity<ValidationExceptionDetails> validationExceptionDetails(BindingResult bindingResult,
+			Exception ex) {
 		
-		List<FieldError> fieldErros = ex.getBindingResult().getFieldErrors();
+		List<FieldError> fieldErros = bindingResult.getFieldErrors();
 		String fields = fieldErros.stream().map(FieldError::getField).collect(Collectors.joining(" "));
 		String fieldsMessages = fieldErros.stream().map(FieldError::getDefaultMessage).collect(Collectors.joining(", "));
 		return new ResponseEntity<>(
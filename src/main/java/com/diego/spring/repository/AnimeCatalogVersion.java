@@ -0,0 +1,8 @@
+package com.diego.spring.repository;
+
+// Projeção: agregado barato que identifica o estado atual da tabela anime
+public interface AnimeCatalogVersion {
+	long getTotal();
+	long getMaxId();
+	long getVersionSum();
+}
@@ -1,11 +1,81 @@
 package com.diego.spring.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.diego.spring.config.CacheConfig;
 import com.diego.spring.domain.Anime;
 
 public interface AnimeRepository extends JpaRepository<Anime, Long>{
+	 // Cache de consultas do Hibernate (ver HibernateCacheConfig), invalidado por qualquer escrita em anime
+	 // readOnly explícito: AnimeService.findByName não abre transação (SingleFlight) e consultas declaradas não
+	 // herdam a do SimpleJpaRepository; sem ela a leitura iria para o primário em vez da réplica
+	 @Transactional(readOnly = true)
+	 @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
 	 List<Anime> findByName(String name);
+	 
+	 // Read-through: Optional.empty() também fica em cache (TTL curto, ver CacheConfig)
+	 @Override
+	 @Cacheable(cacheNames = CacheConfig.ANIME_CACHE)
+	 Optional<Anime> findById(Long id);
+	 
+	 // ETag de GET /anime/{id} sem carregar a entidade; readOnly explícito como em findByName, chamada também fora de
+	 // transação (AnimeService.findVersionByIdCacheFirst)
+	 @Transactional(readOnly = true)
+	 @Query("select a.version from Anime a where a.id = :id")
+	 Optional<Long> findVersionById(@Param("id") Long id);
+	 
+	 // ETag de GET /anime: muda em qualquer insert (count/max id), update (soma das versões) ou delete (count)
+	 @Query("select count(a) as total, coalesce(max(a.id), 0) as maxId, coalesce(sum(a.version), 0) as versionSum "
+	 		+ "from Anime a")
+	 AnimeCatalogVersion findCatalogVersion();
+	 
+	 // Um único UPDATE: version == null atualiza sem conferir a versão; retorna 0 se não existe ou a versão mudou
+	 @Modifying(flushAutomatically = true, clearAutomatically = true)
+	 @Query("update Anime a set a.name = coalesce(:name, a.name), a.version = a.version + 1 "
+	 		+ "where a.id = :id and (:version is null or a.version = :version)")
+	 int updateIfVersionMatches(@Param("id") Long id, @Param("version") Long version, @Param("name") String name);
+	 
+	 // DELETE direto, sem carregar a entidade; retorna 0 se não existe
+	 @Modifying(flushAutomatically = true, clearAutomatically = true)
+	 @Query("delete from Anime a where a.id = :id")
+	 int deleteAnimeById(@Param("id") Long id);
+	 
+	 // Exclusão em massa (DELETE /anime/admin), os ids de cada bloco vêm de findIdsByIdIn ou findIdsByName
+	 @Modifying(flushAutomatically = true, clearAutomatically = true)
+	 @Query("delete from Anime a where a.id in :ids")
+	 int deleteAnimesByIdIn(@Param("ids") Collection<Long> ids);
+	 
+	 @Query("select a.id from Anime a where a.id in :ids")
+	 List<Long> findIdsByIdIn(@Param("ids") Collection<Long> ids);
+	 
+	 @Query("select a.id from Anime a where a.name = :name order by a.id")
+	 List<Long> findIdsByName(@Param("name") String name, Pageable pageable);
+	 
+	 // Paginação por keyset: Slice não executa COUNT e o WHERE substitui o OFFSET
+	 Slice<Anime> findAllBy(Pageable pageable);
+	 
+	 Slice<Anime> findByIdGreaterThan(Long id, Pageable pageable);
+	 
+	 Slice<Anime> findByIdLessThan(Long id, Pageable pageable);
+	 
+	 @Query("select a from Anime a where a.name > :name or (a.name = :name and a.id > :id)")
+	 Slice<Anime> findByNameAndIdAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+	 
+	 @Query("select a from Anime a where a.name < :name or (a.name = :name and a.id < :id)")
+	 Slice<Anime> findByNameAndIdBefore(@Param("name") String name, @Param("id") Long id, Pageable pageable);
 }
@@ -1,9 +1,14 @@
 package com.diego.spring.repository;
 
+import javax.persistence.QueryHint;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.diego.spring.domain.CustomUser;
 
 public interface CustomUserRepository extends JpaRepository<CustomUser, Long> {
+	// Cache de consultas do Hibernate (ver HibernateCacheConfig), invalidado por qualquer escrita em custom_user
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
 	CustomUser findByUsername(String username);
 }
@@ -0,0 +1,33 @@
+package com.diego.spring.request;
+
+import java.util.Set;
+
+import javax.validation.constraints.AssertTrue;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO: exclusão em massa por ids ou pelo nome (um dos dois)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeBulkDeleteRequestBody {
+	@Schema(description = "Ids of the animes to delete", example = "[1, 2, 3]") // Swagger SpringDoc
+	private Set<Long> ids;
+	@Schema(description = "Deletes every anime with exactly this name", example = "Anime A1")
+	private String name;
+	
+	@AssertTrue(message = "Send either ids or name")
+	@JsonIgnore
+	public boolean isSingleFilter() {
+		boolean hasIds = ids != null && !ids.isEmpty();
+		boolean hasName = name != null && !name.isEmpty();
+		return hasIds != hasName;
+	}
+}
@@ -0,0 +1,23 @@
+package com.diego.spring.request;
+
+import javax.validation.constraints.Pattern;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO: apenas os campos enviados (não nulos) são alterados
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimePatchRequestBody {
+	@Pattern(regexp = ".*\\S.*", message = "The anime name cannot be empty")
+	@Schema(description = "This is the Anime's name", example = "Anime A1") // Swagger SpringDoc
+	private String name;
+	@Schema(description = "Version read by the client, the update fails with 409 when the anime changed since",
+			example = "0")
+	private Long version;
+}
@@ -1,5 +1,8 @@
 package com.diego.spring.request;
 
+import javax.validation.constraints.NotEmpty;
+
+import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,5 +11,9 @@ import lombok.Data;
 @Builder
 public class AnimePutRequestBody {
 	private Long id;
+	@NotEmpty(message = "The anime name cannot be empty")
 	private String name;
+	@Schema(description = "Version read by the client, the update fails with 409 when the anime changed since. "
+			+ "Without it (or If-Match) the update is unconditional", example = "0") // Swagger SpringDoc
+	private Long version;
 }
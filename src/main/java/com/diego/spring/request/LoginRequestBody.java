@@ -0,0 +1,20 @@
+package com.diego.spring.request;
+
+import javax.validation.constraints.NotEmpty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoginRequestBody {
+	@NotEmpty(message = "The username cannot be empty")
+	private String username;
+	@NotEmpty(message = "The password cannot be empty")
+	private String password;
+}
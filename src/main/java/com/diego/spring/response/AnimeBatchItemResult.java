@@ -0,0 +1,21 @@
+package com.diego.spring.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO: resultado de cada item do POST /anime/batch, na ordem em que foi recebido
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeBatchItemResult {
+	
+	public enum Status { CREATED, INVALID, FAILED }
+	
+	private int index;
+	private Status status;
+	private Long id;
+	private String message;
+}
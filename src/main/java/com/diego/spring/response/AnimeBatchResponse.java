@@ -0,0 +1,20 @@
+package com.diego.spring.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeBatchResponse {
+	private int received;
+	private int created;
+	private int failed;
+	private List<AnimeBatchItemResult> items;
+}
@@ -0,0 +1,19 @@
+package com.diego.spring.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeBulkDeleteResponse {
+	private long deleted;
+	private int chunks;
+	private List<Long> notFound; // apenas na exclusão por ids
+}
@@ -0,0 +1,21 @@
+package com.diego.spring.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO: situação de um POST /anime assíncrono, consultada em GET /anime/ingest/{trackingId}
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeIngestStatus {
+
+	public enum Status { PENDING, CREATED, FAILED }
+
+	private String trackingId;
+	private Status status;
+	private Long id;
+	private String message;
+}
@@ -0,0 +1,20 @@
+package com.diego.spring.response;
+
+import java.util.List;
+
+import com.diego.spring.domain.Anime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO: animes na ordem dos ids pedidos (sem repetições) e os ids que não existem
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeMultiGetResponse {
+	private List<Anime> content;
+	private List<Long> missing;
+}
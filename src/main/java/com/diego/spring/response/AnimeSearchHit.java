@@ -0,0 +1,17 @@
+package com.diego.spring.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeSearchHit {
+	private Long id;
+	private String name;
+	private float score;
+}
@@ -0,0 +1,21 @@
+package com.diego.spring.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO: resultado do GET /anime/search, ordenado por relevância
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeSearchResponse {
+	private String query;
+	private long totalHits;
+	private int page;
+	private int size;
+	private List<AnimeSearchHit> hits;
+}
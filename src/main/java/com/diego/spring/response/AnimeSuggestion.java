@@ -0,0 +1,16 @@
+package com.diego.spring.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO: item do GET /anime/suggest, sem version (o índice não a conhece, use GET /anime/{id} antes de alterar)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AnimeSuggestion {
+	private Long id;
+	private String name;
+}
@@ -0,0 +1,21 @@
+package com.diego.spring.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO: página por keyset, sem total de elementos (não executa COUNT)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class KeysetPageResponse<T> {
+	private List<T> content;
+	private int size;
+	private boolean hasNext;
+	// null na última página
+	private String nextCursor;
+}
@@ -0,0 +1,33 @@
+package com.diego.spring.response;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO: página por offset (GET /anime) sem os objetos pageable/sort do PageImpl; também é o tipo lido pelos clientes
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PageResponse<T> {
+	private List<T> content;
+	private int page;
+	private int size;
+	private long totalElements;
+	private int totalPages;
+	
+	public static <T> PageResponse<T> of(Page<T> page) {
+		return PageResponse.<T>builder()
+				.content(page.getContent())
+				.page(page.getNumber())
+				.size(page.getSize())
+				.totalElements(page.getTotalElements())
+				.totalPages(page.getTotalPages())
+				.build();
+	}
+}
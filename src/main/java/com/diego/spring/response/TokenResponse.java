@@ -0,0 +1,19 @@
+package com.diego.spring.response;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//DTO
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenResponse {
+	private String token;
+	private String tokenType;
+	private Instant expiresAt;
+}
@@ -0,0 +1,74 @@
+package com.diego.spring.security;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+// Limita falhas de autenticação por IP antes de TokenAuthenticationFilter/BasicAuthenticationFilter: senha errada
+// ou usuário inexistente custam uma consulta ao banco e um bcrypt, e o RateLimitFilter (depois da autenticação)
+// nunca via essas requisições. Cada requisição com credenciais (Authorization, POST /auth/login ou /login) consome
+// um token do IP antes de autenticar, e o token volta se a autenticação der certo: só as falhas gastam o bucket e
+// usuários legítimos atrás do mesmo IP (NAT) não são limitados.
+@RequiredArgsConstructor
+public class AuthenticationRateLimitFilter extends OncePerRequestFilter {
+
+	private static final String LIMITED = "authentication attempts";
+
+	private final RateLimiter rateLimiter;
+	private final ObjectMapper objectMapper;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!hasCredentials(request)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		String key = "ip:" + request.getRemoteAddr();
+		Duration retryAfter = rateLimiter.tryAcquire(key, RateLimiter.DEFAULT_ENDPOINT);
+		if (!retryAfter.isZero()) {
+			RateLimitFilter.writeTooManyRequests(response, objectMapper, LIMITED, retryAfter);
+			return;
+		}
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			if (!failed(response)) {
+				rateLimiter.refund(key, RateLimiter.DEFAULT_ENDPOINT);
+			}
+		}
+	}
+
+	// Falha: ninguém autenticado no fim da cadeia (o SecurityContext só é limpo pelos filtros anteriores) e resposta
+	// de erro; POST /auth/login não coloca o usuário no contexto, vale o 2xx
+	private static boolean failed(HttpServletResponse response) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		boolean authenticated = authentication != null && authentication.isAuthenticated()
+				&& !(authentication instanceof AnonymousAuthenticationToken);
+		return !authenticated && !HttpStatus.valueOf(response.getStatus()).is2xxSuccessful();
+	}
+
+	private static boolean hasCredentials(HttpServletRequest request) {
+		if (request.getHeader(HttpHeaders.AUTHORIZATION) != null) {
+			return true;
+		}
+		String path = request.getServletPath();
+		return HttpMethod.POST.matches(request.getMethod()) && ("/auth/login".equals(path) || "/login".equals(path));
+	}
+}
@@ -0,0 +1,70 @@
+package com.diego.spring.security;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.diego.spring.exception.ExceptionDetails;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+// Limita requisições por usuário autenticado (ou IP, sem autenticação) antes de chegar aos controllers:
+// acima do limite responde 429 com Retry-After sem nenhum acesso ao banco.
+// O IP é o remoteAddr; atrás de proxy use server.forward-headers-strategy em vez de confiar no X-Forwarded-For.
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	private final RateLimiter rateLimiter;
+	private final ObjectMapper objectMapper;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String endpoint = rateLimiter.endpointOf(request.getServletPath());
+		Duration retryAfter = rateLimiter.tryAcquire(key(request), endpoint);
+		if (retryAfter.isZero()) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		writeTooManyRequests(response, objectMapper, endpoint, retryAfter);
+	}
+
+	static void writeTooManyRequests(HttpServletResponse response, ObjectMapper objectMapper, String endpoint,
+			Duration retryAfter) throws IOException {
+		// Retry-After em segundos inteiros, arredondado para cima
+		long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), ExceptionDetails.builder()
+				.timestamp(LocalDateTime.now())
+				.status(HttpStatus.TOO_MANY_REQUESTS.value())
+				.title("Too many requests, retry later")
+				.details(String.format("Rate limit exceeded for %s, retry after %d s", endpoint, seconds))
+				.developerMessage(RateLimiter.class.getName())
+				.build());
+	}
+
+	private static String key(HttpServletRequest request) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.isAuthenticated()
+				&& !(authentication instanceof AnonymousAuthenticationToken)) {
+			return "user:" + authentication.getName();
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+}
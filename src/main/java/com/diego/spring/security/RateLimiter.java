@@ -0,0 +1,175 @@
+package com.diego.spring.security;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Token bucket por chave (usuário ou IP) no formato GCRA: cada bucket é um único AtomicLong com o instante
+// em que ele estaria cheio de novo ("theoretical arrival time"), atualizado por CAS, sem locks.
+// capacity é a rajada máxima em tokens e refill-per-second a taxa sustentada; cada requisição consome o
+// custo do primeiro padrão em anime.rate-limit.costs que casar com o path (custo 0 não é limitado).
+// Buckets ociosos por mais tempo que o necessário para encher são descartados, o que equivale a um bucket cheio.
+// Uma segunda instância (anime.rate-limit.authentication, métricas anime.rate-limit.authentication.*) limita as
+// falhas de autenticação por IP, ver AuthenticationRateLimitFilter.
+
+@Component
+public class RateLimiter {
+
+	public static final String METRIC_NAME = "anime.rate-limit";
+	public static final String DEFAULT_ENDPOINT = "default";
+
+	private final long emissionIntervalNanos;
+	private final long burstNanos;
+	private final int capacity;
+	private final Map<String, Integer> costs;
+	private final LongSupplier nanoTime;
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+	private final Cache<String, AtomicLong> buckets;
+	private final Map<String, Counter> allowed = new LinkedHashMap<>();
+	private final Map<String, Counter> rejected = new LinkedHashMap<>();
+
+	@Autowired
+	public RateLimiter(MeterRegistry meterRegistry,
+			@Value("${anime.rate-limit.capacity:100}") int capacity,
+			@Value("${anime.rate-limit.refill-per-second:20}") double refillPerSecond,
+			@Value("${anime.rate-limit.max-keys:100000}") long maxKeys,
+			@Value("${anime.rate-limit.costs:/anime/all=100}") List<String> costs) {
+		this(meterRegistry, METRIC_NAME, capacity, refillPerSecond, maxKeys, costs, System::nanoTime);
+	}
+
+	// Limitador avulso com métricas próprias, todas as requisições custam 1 token (endpoint "default")
+	public RateLimiter(MeterRegistry meterRegistry, String metricName, int capacity, double refillPerSecond,
+			long maxKeys) {
+		this(meterRegistry, metricName, capacity, refillPerSecond, maxKeys, List.of(), System::nanoTime);
+	}
+
+	RateLimiter(MeterRegistry meterRegistry, int capacity, double refillPerSecond, long maxKeys,
+			List<String> costs, LongSupplier nanoTime) {
+		this(meterRegistry, METRIC_NAME, capacity, refillPerSecond, maxKeys, costs, nanoTime);
+	}
+
+	private RateLimiter(MeterRegistry meterRegistry, String metricName, int capacity, double refillPerSecond,
+			long maxKeys, List<String> costs, LongSupplier nanoTime) {
+		if (capacity < 1 || refillPerSecond <= 0) {
+			throw new IllegalArgumentException("anime.rate-limit.capacity and refill-per-second must be positive");
+		}
+		this.capacity = capacity;
+		this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond));
+		this.burstNanos = emissionIntervalNanos * capacity;
+		this.costs = parseCosts(costs);
+		this.nanoTime = nanoTime;
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maxKeys)
+				.expireAfterAccess(Duration.ofNanos(burstNanos).plusSeconds(1))
+				.build();
+
+		List<String> endpoints = new ArrayList<>(this.costs.keySet());
+		endpoints.add(DEFAULT_ENDPOINT);
+		for (String endpoint : endpoints) {
+			allowed.put(endpoint, counter(meterRegistry, metricName, endpoint, "allowed"));
+			rejected.put(endpoint, counter(meterRegistry, metricName, endpoint, "rejected"));
+		}
+		Gauge.builder(metricName + ".buckets", buckets, Cache::estimatedSize)
+			.description("Clients (users or IPs) with a bucket in memory")
+			.register(meterRegistry);
+		Gauge.builder(metricName + ".buckets.exhausted", this, RateLimiter::exhaustedBuckets)
+			.description("Clients that cannot afford a single token right now")
+			.register(meterRegistry);
+	}
+
+	// Padrão de anime.rate-limit.costs que se aplica ao path, "default" quando nenhum casa
+	public String endpointOf(String path) {
+		for (String pattern : costs.keySet()) {
+			if (pathMatcher.match(pattern, path)) {
+				return pattern;
+			}
+		}
+		return DEFAULT_ENDPOINT;
+	}
+
+	public int costOf(String endpoint) {
+		return costs.getOrDefault(endpoint, 1);
+	}
+
+	// Retorna 0 quando os tokens foram consumidos, senão quanto tempo esperar até haver tokens suficientes
+	public Duration tryAcquire(String key, String endpoint) {
+		// Custos acima da capacidade nunca caberiam no bucket: consomem o bucket inteiro
+		int cost = Math.min(costOf(endpoint), capacity);
+		if (cost <= 0) {
+			return Duration.ZERO;
+		}
+		// Long.MIN_VALUE: bucket novo, cheio
+		AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+		long increment = emissionIntervalNanos * cost;
+		while (true) {
+			long now = nanoTime.getAsLong();
+			long arrival = bucket.get();
+			long newArrival = Math.max(arrival, now) + increment;
+			long waitNanos = newArrival - now - burstNanos;
+			if (waitNanos > 0) {
+				rejected.get(endpoint).increment();
+				return Duration.ofNanos(waitNanos);
+			}
+			if (bucket.compareAndSet(arrival, newArrival)) {
+				allowed.get(endpoint).increment();
+				return Duration.ZERO;
+			}
+		}
+	}
+
+	// Devolve os tokens de um tryAcquire que deu certo (ex.: só falhas devem contar)
+	public void refund(String key, String endpoint) {
+		int cost = Math.min(costOf(endpoint), capacity);
+		AtomicLong bucket = buckets.getIfPresent(key);
+		if (cost > 0 && bucket != null) {
+			long increment = emissionIntervalNanos * cost;
+			bucket.updateAndGet(arrival -> arrival == Long.MIN_VALUE ? arrival : arrival - increment);
+		}
+	}
+
+	private long exhaustedBuckets() {
+		long now = nanoTime.getAsLong();
+		return buckets.asMap().values().stream()
+				.filter(bucket -> bucket.get() != Long.MIN_VALUE
+						&& bucket.get() - now > burstNanos - emissionIntervalNanos)
+				.count();
+	}
+
+	private static Counter counter(MeterRegistry meterRegistry, String metricName, String endpoint, String result) {
+		return Counter.builder(metricName + ".requests")
+				.tag("endpoint", endpoint)
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	// "/anime/all=100" -> {"/anime/all": 100}, na ordem configurada (padrões mais específicos primeiro)
+	private static Map<String, Integer> parseCosts(List<String> costs) {
+		Map<String, Integer> parsed = new LinkedHashMap<>();
+		for (String entry : costs) {
+			int separator = entry.lastIndexOf('=');
+			if (separator < 1) {
+				throw new IllegalArgumentException("Invalid anime.rate-limit.costs entry '" + entry
+						+ "', expected <ant pattern>=<cost>");
+			}
+			parsed.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+		}
+		return parsed;
+	}
+}
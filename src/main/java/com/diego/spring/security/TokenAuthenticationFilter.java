@@ -0,0 +1,38 @@
+package com.diego.spring.security;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import lombok.RequiredArgsConstructor;
+
+// Autentica requisições com "Authorization: Bearer <token>" emitido pelo /auth/login.
+// Sem token (ou token inválido) a requisição segue para os outros mecanismos (httpBasic).
+@RequiredArgsConstructor
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private final TokenService tokenService;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (header != null && header.startsWith(BEARER_PREFIX)
+				&& SecurityContextHolder.getContext().getAuthentication() == null) {
+			tokenService.parse(header.substring(BEARER_PREFIX.length()))
+				.ifPresent(customUser -> SecurityContextHolder.getContext().setAuthentication(
+						new UsernamePasswordAuthenticationToken(customUser, null, customUser.getAuthorities())));
+		}
+		filterChain.doFilter(request, response);
+	}
+}
@@ -0,0 +1,124 @@
+package com.diego.spring.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.diego.spring.domain.CustomUser;
+import com.diego.spring.response.TokenResponse;
+
+import lombok.extern.log4j.Log4j2;
+
+// Token assinado com HMAC-SHA256: base64url(expiração:authorities:username).base64url(assinatura)
+// A validação não consulta o banco nem executa o bcrypt.
+
+@Component
+@Log4j2
+public class TokenService {
+
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+	private final SecretKeySpec key;
+	private final Duration ttl;
+	private final Clock clock;
+	// Mac não é thread-safe, uma instância por thread
+	private final ThreadLocal<Mac> mac;
+
+	@Autowired
+	public TokenService(@Value("${anime.security.token.secret:}") String secret,
+			@Value("${anime.security.token.ttl:15m}") Duration ttl) {
+		this(secret, ttl, Clock.systemUTC());
+	}
+
+	TokenService(String secret, Duration ttl, Clock clock) {
+		this.key = new SecretKeySpec(resolveSecret(secret), ALGORITHM);
+		this.ttl = ttl;
+		this.clock = clock;
+		this.mac = ThreadLocal.withInitial(this::createMac);
+	}
+
+	public TokenResponse issue(UserDetails userDetails) {
+		Instant expiresAt = clock.instant().plus(ttl);
+		String authorities = userDetails.getAuthorities().stream()
+				.map(GrantedAuthority::getAuthority)
+				.collect(Collectors.joining(","));
+		String payload = expiresAt.getEpochSecond() + ":" + authorities + ":" + userDetails.getUsername();
+		String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+		String token = encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload));
+
+		return TokenResponse.builder()
+				.token(token)
+				.tokenType("Bearer")
+				.expiresAt(expiresAt)
+				.build();
+	}
+
+	// Retorna o usuário contido no token, ou vazio se a assinatura for inválida ou o token expirou
+	public Optional<CustomUser> parse(String token) {
+		int separator = token.indexOf('.');
+		if (separator <= 0) {
+			return Optional.empty();
+		}
+		String encodedPayload = token.substring(0, separator);
+		try {
+			byte[] signature = DECODER.decode(token.substring(separator + 1));
+			if (!MessageDigest.isEqual(signature, sign(encodedPayload))) {
+				return Optional.empty();
+			}
+			String[] fields = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split(":", 3);
+			if (fields.length != 3 || Long.parseLong(fields[0]) <= clock.instant().getEpochSecond()) {
+				return Optional.empty();
+			}
+			return Optional.of(CustomUser.builder()
+					.username(fields[2])
+					.authorities(fields[1])
+					.build());
+		} catch (IllegalArgumentException e) {
+			// base64 ou expiração mal formados
+			return Optional.empty();
+		}
+	}
+
+	private byte[] sign(String encodedPayload) {
+		return mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	private Mac createMac() {
+		try {
+			Mac instance = Mac.getInstance(ALGORITHM);
+			instance.init(key);
+			return instance;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Could not initialize " + ALGORITHM, e);
+		}
+	}
+
+	private static byte[] resolveSecret(String secret) {
+		if (secret == null || secret.isBlank()) {
+			// Tokens não sobrevivem a restart nem são aceitos por outras instâncias
+			log.warn("anime.security.token.secret is not set, using a random secret");
+			byte[] random = new byte[32];
+			new SecureRandom().nextBytes(random);
+			return random;
+		}
+		return secret.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,159 @@
+package com.diego.spring.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.request.AnimeBulkDeleteRequestBody;
+import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.response.AnimeBatchItemResult;
+import com.diego.spring.response.AnimeBatchResponse;
+import com.diego.spring.response.AnimeBulkDeleteResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+// Ingestão em lote: lê os itens sob demanda, valida cada bloco em paralelo e grava cada bloco em uma transação
+// Exclusão em massa: DELETE ... WHERE id IN (bloco), uma transação por bloco
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class AnimeBatchService {
+	
+	private final AnimeService animeService;
+	private final Validator validator;
+	
+	@Value("${anime.batch.chunk-size:500}")
+	private int chunkSize;
+	
+	public AnimeBatchResponse ingest(Iterator<AnimePostRequestBody> animePostRequestBodies) {
+		List<AnimeBatchItemResult> results = new ArrayList<>();
+		List<AnimePostRequestBody> chunk = new ArrayList<>(chunkSize);
+		
+		try {
+			while (animePostRequestBodies.hasNext()) {
+				chunk.add(animePostRequestBodies.next());
+				if (chunk.size() == chunkSize) {
+					results.addAll(process(chunk, results.size()));
+					chunk.clear();
+				}
+			}
+		} catch (RuntimeException e) {
+			// JSON mal formado: os blocos anteriores já foram gravados, o restante é descartado
+			results.addAll(process(chunk, results.size()));
+			results.add(AnimeBatchItemResult.builder()
+					.index(results.size())
+					.status(AnimeBatchItemResult.Status.INVALID)
+					.message("Malformed item, remaining items were not read: " + e.getMessage())
+					.build());
+			return toResponse(results);
+		}
+		results.addAll(process(chunk, results.size()));
+		return toResponse(results);
+	}
+	
+	private List<AnimeBatchItemResult> process(List<AnimePostRequestBody> chunk, int firstIndex) {
+		List<Set<ConstraintViolation<AnimePostRequestBody>>> violations = chunk.parallelStream()
+				.map(item -> validator.validate(item))
+				.collect(Collectors.toList());
+		
+		List<AnimeBatchItemResult> results = new ArrayList<>(chunk.size());
+		List<AnimePostRequestBody> valid = new ArrayList<>(chunk.size());
+		List<AnimeBatchItemResult> pending = new ArrayList<>(chunk.size());
+		for (int i = 0; i < chunk.size(); i++) {
+			AnimeBatchItemResult result = AnimeBatchItemResult.builder().index(firstIndex + i).build();
+			if (violations.get(i).isEmpty()) {
+				valid.add(chunk.get(i));
+				pending.add(result);
+			} else {
+				result.setStatus(AnimeBatchItemResult.Status.INVALID);
+				result.setMessage(violations.get(i).stream()
+						.map(ConstraintViolation::getMessage)
+						.collect(Collectors.joining(", ")));
+			}
+			results.add(result);
+		}
+		
+		if (valid.isEmpty()) {
+			return results;
+		}
+		try {
+			List<Anime> saved = animeService.saveAll(valid);
+			for (int i = 0; i < saved.size(); i++) {
+				pending.get(i).setStatus(AnimeBatchItemResult.Status.CREATED);
+				pending.get(i).setId(saved.get(i).getId());
+			}
+		} catch (RuntimeException e) {
+			// Rollback do bloco inteiro
+			log.warn("Batch chunk starting at item {} failed", firstIndex, e);
+			pending.forEach(result -> {
+				result.setStatus(AnimeBatchItemResult.Status.FAILED);
+				result.setMessage(e.getMessage());
+			});
+		}
+		return results;
+	}
+	
+	public AnimeBulkDeleteResponse delete(AnimeBulkDeleteRequestBody animeBulkDeleteRequestBody) {
+		return animeBulkDeleteRequestBody.getName() != null && !animeBulkDeleteRequestBody.getName().isEmpty()
+				? deleteByName(animeBulkDeleteRequestBody.getName())
+				: deleteByIds(new ArrayList<>(animeBulkDeleteRequestBody.getIds()));
+	}
+	
+	private AnimeBulkDeleteResponse deleteByIds(List<Long> ids) {
+		Set<Long> deleted = new HashSet<>(ids.size());
+		int chunks = 0;
+		for (int start = 0; start < ids.size(); start += chunkSize) {
+			deleted.addAll(animeService.deleteAll(ids.subList(start, Math.min(start + chunkSize, ids.size()))));
+			chunks++;
+		}
+		List<Long> notFound = ids.stream()
+				.filter(id -> !deleted.contains(id))
+				.collect(Collectors.toList());
+		return AnimeBulkDeleteResponse.builder()
+				.deleted(deleted.size())
+				.chunks(chunks)
+				.notFound(notFound)
+				.build();
+	}
+	
+	// Sempre busca a primeira "página": as linhas do bloco anterior já foram removidas
+	private AnimeBulkDeleteResponse deleteByName(String name) {
+		long deleted = 0;
+		int chunks = 0;
+		List<Long> ids;
+		do {
+			ids = animeService.findIdsByName(name, chunkSize);
+			if (!ids.isEmpty()) {
+				deleted += animeService.deleteAll(ids).size();
+				chunks++;
+			}
+		} while (ids.size() == chunkSize);
+		return AnimeBulkDeleteResponse.builder()
+				.deleted(deleted)
+				.chunks(chunks)
+				.build();
+	}
+	
+	private static AnimeBatchResponse toResponse(List<AnimeBatchItemResult> results) {
+		int created = (int) results.stream()
+				.filter(result -> result.getStatus() == AnimeBatchItemResult.Status.CREATED)
+				.count();
+		return AnimeBatchResponse.builder()
+				.received(results.size())
+				.created(created)
+				.failed(results.size() - created)
+				.items(results)
+				.build();
+	}
+}
@@ -0,0 +1,264 @@
+package com.diego.spring.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.exception.BadRequestException;
+import com.diego.spring.exception.ServiceUnavailableException;
+import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.response.AnimeIngestStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+
+// POST /anime assíncrono (write-behind): o corpo já validado entra numa fila limitada em memória e a requisição
+// recebe 202 com um id de acompanhamento. Uma única thread esvazia a fila em lotes de até batch-size itens, cada
+// lote em uma transação (AnimeService.saveAll); se o lote falha, os itens são gravados um a um para isolar o erro.
+// Fila cheia: ServiceUnavailableException (503). No shutdown a fila é esvaziada antes do DataSource fechar.
+// Os itens na fila se perdem se o processo morrer: só para produtores que toleram isso.
+// Métricas: anime.ingest.queue.size, anime.ingest.batch.size, anime.ingest.commit (tag result) e
+// anime.ingest.items (tag result=accepted|rejected|created|failed).
+@Service
+@Log4j2
+public class AnimeIngestService {
+
+	private static final Duration POLL_INTERVAL = Duration.ofMillis(200);
+
+	private final AnimeService animeService;
+	private final boolean enabled;
+	private final int batchSize;
+	private final Duration drainTimeout;
+	private final BlockingQueue<PendingAnime> queue;
+	private final Cache<String, AnimeIngestStatus> statuses;
+	private final Thread writer;
+	private volatile boolean running;
+
+	private final Counter accepted;
+	private final Counter rejected;
+	private final Counter created;
+	private final Counter failed;
+	private final DistributionSummary batchSizes;
+	private final Timer commitSuccess;
+	private final Timer commitFailure;
+
+	@Autowired
+	public AnimeIngestService(AnimeService animeService, MeterRegistry meterRegistry,
+			@Value("${anime.ingest.async-enabled:false}") boolean enabled,
+			@Value("${anime.ingest.queue-capacity:10000}") int queueCapacity,
+			@Value("${anime.ingest.batch-size:500}") int batchSize,
+			@Value("${anime.ingest.status-ttl:10m}") Duration statusTtl,
+			@Value("${anime.ingest.drain-timeout:30s}") Duration drainTimeout) {
+		this.animeService = animeService;
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+		this.drainTimeout = drainTimeout;
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		// Pendentes ficam até serem gravados (peso 0: fora do limite de tamanho, já limitados pela fila mais o lote
+		// em gravação); os finalizados expiram status-ttl depois de gravados e no máximo queue-capacity ficam guardados
+		this.statuses = Caffeine.newBuilder()
+				.maximumWeight(queueCapacity)
+				.weigher((String trackingId, AnimeIngestStatus status) -> isPending(status) ? 0 : 1)
+				.expireAfter(new FinishedStatusExpiry(statusTtl))
+				.build();
+
+		this.accepted = items(meterRegistry, "accepted");
+		this.rejected = items(meterRegistry, "rejected");
+		this.created = items(meterRegistry, "created");
+		this.failed = items(meterRegistry, "failed");
+		this.batchSizes = DistributionSummary.builder("anime.ingest.batch.size")
+				.description("Items written per transaction by the async ingest writer")
+				.register(meterRegistry);
+		this.commitSuccess = commitTimer(meterRegistry, "success");
+		this.commitFailure = commitTimer(meterRegistry, "failure");
+		Gauge.builder("anime.ingest.queue.size", queue, BlockingQueue::size)
+				.description("Items waiting to be written by the async ingest writer")
+				.register(meterRegistry);
+
+		// Desligado: submit sempre recusa, sem thread
+		this.running = enabled;
+		this.writer = new Thread(this::drainLoop, "anime-ingest-writer");
+		if (enabled) {
+			writer.start();
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public AnimeIngestStatus submit(AnimePostRequestBody animePostRequestBody) {
+		AnimeIngestStatus status = AnimeIngestStatus.builder()
+				.trackingId(UUID.randomUUID().toString())
+				.status(AnimeIngestStatus.Status.PENDING)
+				.build();
+		// Registrado antes de enfileirar: o writer pode gravar o item antes de o offer retornar
+		statuses.put(status.getTrackingId(), status);
+		if (!running || !queue.offer(new PendingAnime(status.getTrackingId(), animePostRequestBody))) {
+			statuses.invalidate(status.getTrackingId());
+			rejected.increment();
+			throw new ServiceUnavailableException(running ? "Ingest queue is full, try again later"
+					: "Async ingest is not accepting items");
+		}
+		accepted.increment();
+		return status;
+	}
+
+	public AnimeIngestStatus findStatusOrThrowBadRequestException(String trackingId) {
+		AnimeIngestStatus status = statuses.getIfPresent(trackingId);
+		if (status == null) {
+			throw new BadRequestException("Tracking id not found or expired");
+		}
+		return status;
+	}
+
+	// Para de aceitar itens e espera o writer gravar o que já está na fila
+	@PreDestroy
+	public void close() throws InterruptedException {
+		running = false;
+		if (writer.isAlive()) {
+			writer.join(drainTimeout.toMillis());
+			if (writer.isAlive()) {
+				log.warn("Async ingest did not drain in {}, {} items were not written", drainTimeout, queue.size());
+				writer.interrupt();
+			}
+		}
+	}
+
+	private void drainLoop() {
+		List<PendingAnime> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				PendingAnime first = queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				// O que já estiver na fila, sem esperar o lote encher
+				queue.drainTo(batch, batchSize - 1);
+				write(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (RuntimeException e) {
+				log.error("Async ingest writer failed on a batch of {} items", batch.size(), e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	private void write(List<PendingAnime> batch) {
+		batchSizes.record(batch.size());
+		List<AnimePostRequestBody> bodies = new ArrayList<>(batch.size());
+		batch.forEach(pending -> bodies.add(pending.body));
+
+		long start = System.nanoTime();
+		try {
+			List<Anime> saved = animeService.saveAll(bodies);
+			commitSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			for (int i = 0; i < saved.size(); i++) {
+				markCreated(batch.get(i), saved.get(i));
+			}
+		} catch (RuntimeException e) {
+			commitFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			log.warn("Async ingest batch of {} items failed, retrying one by one", batch.size(), e);
+			batch.forEach(this::writeOne);
+		}
+	}
+
+	private void writeOne(PendingAnime pending) {
+		long start = System.nanoTime();
+		try {
+			Anime anime = animeService.save(pending.body);
+			commitSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			markCreated(pending, anime);
+		} catch (RuntimeException e) {
+			commitFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			failed.increment();
+			statuses.put(pending.trackingId, AnimeIngestStatus.builder()
+					.trackingId(pending.trackingId)
+					.status(AnimeIngestStatus.Status.FAILED)
+					.message(e.getMessage())
+					.build());
+		}
+	}
+
+	private void markCreated(PendingAnime pending, Anime anime) {
+		created.increment();
+		statuses.put(pending.trackingId, AnimeIngestStatus.builder()
+				.trackingId(pending.trackingId)
+				.status(AnimeIngestStatus.Status.CREATED)
+				.id(anime.getId())
+				.build());
+	}
+
+	private static boolean isPending(AnimeIngestStatus status) {
+		return status.getStatus() == AnimeIngestStatus.Status.PENDING;
+	}
+
+	private static Counter items(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("anime.ingest.items")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	private static Timer commitTimer(MeterRegistry meterRegistry, String result) {
+		return Timer.builder("anime.ingest.commit")
+				.description("Time to write and commit one async ingest transaction")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	// O TTL começa quando o item sai de PENDING: um item parado na fila continua consultável
+	private static class FinishedStatusExpiry implements Expiry<String, AnimeIngestStatus> {
+		private final long ttlNanos;
+
+		FinishedStatusExpiry(Duration ttl) {
+			this.ttlNanos = ttl.toNanos();
+		}
+
+		@Override
+		public long expireAfterCreate(String key, AnimeIngestStatus value, long currentTime) {
+			return isPending(value) ? Long.MAX_VALUE : ttlNanos;
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, AnimeIngestStatus value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, AnimeIngestStatus value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+
+	private static class PendingAnime {
+		private final String trackingId;
+		private final AnimePostRequestBody body;
+
+		PendingAnime(String trackingId, AnimePostRequestBody body) {
+			this.trackingId = trackingId;
+			this.body = body;
+		}
+	}
+}
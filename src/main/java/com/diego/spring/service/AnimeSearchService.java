@@ -0,0 +1,335 @@
+package com.diego.spring.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.MMapDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.diego.spring.event.AnimeChangedEvent;
+import com.diego.spring.exception.BadRequestException;
+import com.diego.spring.repository.AnimeCatalogVersion;
+import com.diego.spring.response.AnimeSearchHit;
+import com.diego.spring.response.AnimeSearchResponse;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+// Busca textual (Lucene) sobre os nomes: índice invertido em disco (MMapDirectory), atualizado pelos
+// AnimeChangedEvent. O commit é periódico, então o índice sobrevive a restart sem reconstrução.
+// Cada commit grava junto o AnimeCatalogVersion do banco (watermark). No startup o índice só é reaproveitado se
+// o watermark bate com o banco: escritas perdidas num crash antes do commit, feitas por outras instâncias ou por
+// SQL direto mudam o catálogo e forçam a reconstrução.
+// Eventos que chegam durante a reconstrução ficam em espera e são aplicados depois da leitura do banco, senão a
+// leitura (anterior ao evento) sobrescreveria a alteração.
+@Service
+@Log4j2
+public class AnimeSearchService {
+
+	public static final int MAX_RESULTS = 1000;
+
+	private static final String ID = "id";
+	private static final String NAME = "name";
+	private static final String WATERMARK = "catalogVersion";
+
+	private final AnimeService animeService;
+	private final Analyzer analyzer = new NameAnalyzer();
+	private final MMapDirectory directory;
+	private final IndexWriter writer;
+	private final SearcherManager searcherManager;
+	private final AtomicLong pendingChanges = new AtomicLong();
+	// Leitura: aplicar um evento ou fazer commit; escrita: entrar e sair da reconstrução
+	private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+	private final Queue<AnimeChangedEvent> eventsDuringRebuild = new ConcurrentLinkedQueue<>();
+	private boolean rebuilding;
+	// false depois de uma reconstrução que falhou: os commits seguintes não gravam watermark
+	private volatile boolean complete = true;
+	// Watermark do último commit encontrado no disco ao abrir o índice
+	private final String persistedWatermark;
+
+	public AnimeSearchService(AnimeService animeService, MeterRegistry meterRegistry,
+			@Value("${anime.search.index-path:data/anime-index}") String indexPath) {
+		this.animeService = animeService;
+		try {
+			Path path = Paths.get(indexPath);
+			this.directory = new MMapDirectory(path);
+			this.persistedWatermark = DirectoryReader.indexExists(directory)
+					? SegmentInfos.readLatestCommit(directory).getUserData().get(WATERMARK)
+					: null;
+			// Sem commit implícito no close: só commit() grava, sempre com o watermark certo
+			this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+					.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+					.setCommitOnClose(false));
+			this.searcherManager = new SearcherManager(writer, null);
+			log.info("Search index opened at {} with {} documents", path.toAbsolutePath(), documents());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Could not open search index at " + indexPath, e);
+		}
+		Gauge.builder("anime.search.index.documents", this, AnimeSearchService::documents)
+			.description("Documents in the full-text search index")
+			.register(meterRegistry);
+	}
+
+	public AnimeSearchResponse search(String text, int page, int size) {
+		if (page < 0 || size <= 0 || (long) (page + 1) * size > MAX_RESULTS) {
+			throw new BadRequestException("Search pagination is limited to the first " + MAX_RESULTS + " results");
+		}
+		Query query = buildQuery(text);
+		List<AnimeSearchHit> hits = new ArrayList<>(size);
+		long totalHits = 0;
+
+		if (query != null) {
+			try {
+				IndexSearcher searcher = searcherManager.acquire();
+				try {
+					TopDocs topDocs = searcher.search(query, (page + 1) * size);
+					totalHits = topDocs.totalHits.value;
+					for (int i = page * size; i < topDocs.scoreDocs.length; i++) {
+						ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+						Document document = searcher.doc(scoreDoc.doc);
+						hits.add(AnimeSearchHit.builder()
+								.id(Long.valueOf(document.get(ID)))
+								.name(document.get(NAME))
+								.score(scoreDoc.score)
+								.build());
+					}
+				} finally {
+					searcherManager.release(searcher);
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		return AnimeSearchResponse.builder()
+				.query(text)
+				.totalHits(totalHits)
+				.page(page)
+				.size(size)
+				.hits(hits)
+				.build();
+	}
+
+	// Reconstrói o índice inteiro a partir do banco, retorna a quantidade de documentos indexados
+	public synchronized long rebuild() {
+		long start = System.nanoTime();
+		AtomicLong indexed = new AtomicLong();
+		setRebuilding(true);
+		complete = false;
+		try {
+			// Um commit do índice pela metade (ex.: shutdown no meio) fica sem watermark e é refeito no startup
+			writer.setLiveCommitData(Collections.<String, String>emptyMap().entrySet());
+			writer.deleteAll();
+			animeService.forEachAnime(anime -> {
+				index(anime.getId(), anime.getName());
+				indexed.incrementAndGet();
+			});
+			complete = true;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			setRebuilding(false);
+		}
+		try {
+			commit();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		log.info("Search index rebuilt with {} documents in {} ms", indexed.get(),
+				(System.nanoTime() - start) / 1_000_000);
+		return indexed.get();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildIfStale() {
+		String watermark = watermark(animeService.findCatalogVersion());
+		if (watermark == null || !watermark.equals(persistedWatermark)) {
+			log.info("Search index watermark {} does not match catalog {}, rebuilding", persistedWatermark, watermark);
+			rebuild();
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAnimeChanged(AnimeChangedEvent event) {
+		rebuildLock.readLock().lock();
+		try {
+			if (rebuilding) {
+				eventsDuringRebuild.add(event);
+			} else {
+				apply(event);
+			}
+		} finally {
+			rebuildLock.readLock().unlock();
+		}
+	}
+
+	// Torna as escritas visíveis para as buscas (near real-time, sem commit)
+	@Scheduled(fixedDelayString = "${anime.search.refresh-interval:PT1S}")
+	public void refresh() throws IOException {
+		searcherManager.maybeRefresh();
+	}
+
+	// Persiste as escritas em disco
+	@Scheduled(fixedDelayString = "${anime.search.commit-interval:PT30S}")
+	public void commitIfPending() throws IOException {
+		rebuildLock.readLock().lock();
+		try {
+			// Durante a reconstrução o índice está incompleto: rebuild() faz o commit no final
+			if (pendingChanges.get() > 0 && !rebuilding) {
+				commit();
+			}
+		} finally {
+			rebuildLock.readLock().unlock();
+		}
+	}
+
+	@PreDestroy
+	public void close() throws IOException {
+		commitIfPending();
+		searcherManager.close();
+		writer.close();
+		directory.close();
+	}
+
+	// O watermark é lido antes: um evento aplicado entre a leitura e o commit deixa o watermark mais antigo que o
+	// índice, o que no pior caso causa uma reconstrução a mais no startup
+	private void commit() throws IOException {
+		String watermark = complete ? watermark(animeService.findCatalogVersion()) : null;
+		pendingChanges.set(0);
+		writer.setLiveCommitData(watermark == null ? Collections.<String, String>emptyMap().entrySet()
+				: Map.of(WATERMARK, watermark).entrySet());
+		writer.commit();
+		searcherManager.maybeRefresh();
+	}
+
+	// Entra em modo reconstrução, ou sai aplicando os eventos que chegaram enquanto isso
+	private void setRebuilding(boolean value) {
+		rebuildLock.writeLock().lock();
+		try {
+			if (!value) {
+				AnimeChangedEvent event;
+				while ((event = eventsDuringRebuild.poll()) != null) {
+					apply(event);
+				}
+			}
+			rebuilding = value;
+		} finally {
+			rebuildLock.writeLock().unlock();
+		}
+	}
+
+	private void apply(AnimeChangedEvent event) {
+		try {
+			if (event.getType() == AnimeChangedEvent.Type.DELETED) {
+				writer.deleteDocuments(new Term(ID, event.getId().toString()));
+			} else {
+				index(event.getId(), event.getName());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		pendingChanges.incrementAndGet();
+	}
+
+	private static String watermark(AnimeCatalogVersion catalogVersion) {
+		return catalogVersion == null ? null : catalogVersion.getTotal() + ":" + catalogVersion.getMaxId() + ":"
+				+ catalogVersion.getVersionSum();
+	}
+
+	private void index(Long id, String name) {
+		Document document = new Document();
+		document.add(new StringField(ID, id.toString(), Field.Store.YES));
+		document.add(new TextField(NAME, name, Field.Store.YES));
+		try {
+			writer.updateDocument(new Term(ID, id.toString()), document);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private long documents() {
+		return writer.getDocStats().numDocs;
+	}
+
+	// Cada termo precisa aparecer no nome: exato (peso maior), como prefixo ou com erro de digitação
+	private Query buildQuery(String text) {
+		BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		int terms = 0;
+		try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+			CharTermAttribute termAttribute = tokens.addAttribute(CharTermAttribute.class);
+			tokens.reset();
+			while (tokens.incrementToken()) {
+				String value = termAttribute.toString();
+				Term term = new Term(NAME, value);
+				BooleanQuery.Builder variants = new BooleanQuery.Builder()
+						.add(new BoostQuery(new TermQuery(term), 3f), BooleanClause.Occur.SHOULD)
+						.add(new BoostQuery(new PrefixQuery(term), 2f), BooleanClause.Occur.SHOULD);
+				if (value.length() > 2) {
+					variants.add(new FuzzyQuery(term, value.length() > 5 ? 2 : 1, 1), BooleanClause.Occur.SHOULD);
+				}
+				builder.add(variants.build(), BooleanClause.Occur.MUST);
+				terms++;
+			}
+			tokens.end();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return terms == 0 ? null : builder.build();
+	}
+
+	// Tokenização padrão, minúsculas e remoção de acentos
+	private static class NameAnalyzer extends Analyzer {
+		@Override
+		protected TokenStreamComponents createComponents(String fieldName) {
+			Tokenizer tokenizer = new StandardTokenizer();
+			TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+			return new TokenStreamComponents(tokenizer, stream);
+		}
+	}
+}
@@ -1,19 +1,49 @@
 package com.diego.spring.service;
 
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.diego.spring.config.CacheConfig;
 import com.diego.spring.domain.Anime;
+import com.diego.spring.event.AnimeChangedEvent;
 import com.diego.spring.exception.BadRequestException;
+import com.diego.spring.exception.ConflictException;
 import com.diego.spring.mapper.AnimeMapper;
+import com.diego.spring.repository.AnimeCatalogVersion;
 import com.diego.spring.repository.AnimeRepository;
+import com.diego.spring.request.AnimePatchRequestBody;
 import com.diego.spring.request.AnimePostRequestBody;
 import com.diego.spring.request.AnimePutRequestBody;
+import com.diego.spring.response.AnimeMultiGetResponse;
+import com.diego.spring.util.KeysetCursor;
 
 import lombok.RequiredArgsConstructor;
 
@@ -21,41 +51,246 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class AnimeService {
 	
+	public static final int MULTI_GET_MAX_IDS = 1000;
+	
 	private final AnimeRepository animeRepo;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ObjectProvider<CacheManager> cacheManager;
+	private final SingleFlight singleFlight;
+	
+	@Value("${anime.multi-get.batch-size:100}")
+	private int multiGetBatchSize;
+	
+	// Integer.MIN_VALUE no MySQL (ver application.yml), positivo nos demais bancos
+	@Value("${anime.stream.fetch-size:500}")
+	private int streamFetchSize;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
 
+	// Leituras com readOnly = true: réplica quando configurada (anime.datasource.replica), flush manual e
+	// entidades sem dirty checking
+	@Transactional(readOnly = true)
 	public Page<Anime> listAll(Pageable pageable) {
 		return animeRepo.findAll(pageable);
 	}
 	
+	// Busca a página seguinte ao cursor (ou a primeira, se cursor == null) sem OFFSET e sem COUNT
+	@Transactional(readOnly = true)
+	public Slice<Anime> listAllKeyset(KeysetCursor cursor, Sort.Order order, int size) {
+		Sort.Direction direction = order.getDirection();
+		Sort sort = "id".equals(order.getProperty())
+				? Sort.by(direction, "id")
+				: Sort.by(direction, order.getProperty()).and(Sort.by(direction, "id"));
+		Pageable pageable = PageRequest.of(0, size, sort);
+		
+		if (cursor == null) {
+			return animeRepo.findAllBy(pageable);
+		}
+		if ("id".equals(order.getProperty())) {
+			return direction.isAscending()
+					? animeRepo.findByIdGreaterThan(cursor.getLastId(), pageable)
+					: animeRepo.findByIdLessThan(cursor.getLastId(), pageable);
+		}
+		return direction.isAscending()
+				? animeRepo.findByNameAndIdAfter(cursor.getLastValue(), cursor.getLastId(), pageable)
+				: animeRepo.findByNameAndIdBefore(cursor.getLastValue(), cursor.getLastId(), pageable);
+	}
+	
+	@Transactional(readOnly = true)
 	public List<Anime> listAllNonPageable() {
 		return animeRepo.findAll();
 	}
 	
+	// Entrega cada Anime ao consumer conforme é lido do banco, memória constante independente do tamanho da tabela.
+	// Consulta montada aqui e não no repositório: o fetch size depende do banco e @QueryHints só aceita constantes
+	@Transactional(readOnly = true)
+	public void forEachAnime(Consumer<Anime> consumer) {
+		try (Stream<Anime> animes = entityManager.createQuery("select a from Anime a", Anime.class)
+				.setHint(org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, streamFetchSize)
+				.setHint(org.hibernate.jpa.QueryHints.HINT_READONLY, true)
+				.getResultStream()) {
+			animes.forEach(anime -> {
+				consumer.accept(anime);
+				entityManager.detach(anime);
+			});
+		}
+	}
+	
+	// Sem @Transactional, como findByIdOrThrowBadRequestException: quem espera a mesma busca em andamento
+	// (SingleFlight) não abre transação nem ocupa conexão, a transação readOnly é a do repositório.
+	// A lista é compartilhada entre as requisições coalescidas, por isso imutável.
 	public List<Anime> findByName(String name) {
-		return animeRepo.findByName(name);
+		return singleFlight.execute("findByName", name,
+				() -> Collections.unmodifiableList(animeRepo.findByName(name)));
 	}
 	
+	@Transactional(readOnly = true)
+	public Optional<Long> findVersionById(long id) {
+		return animeRepo.findVersionById(id);
+	}
+	
+	// Revalidação do GET /anime/{id} (If-None-Match): a versão do Anime no cache do findById, sem ir ao banco;
+	// só consulta a versão quando o id não está no cache. Sem @Transactional: um acerto no cache não abre transação
+	public Optional<Long> findVersionByIdCacheFirst(long id) {
+		Cache cache = animeCache();
+		Cache.ValueWrapper cached = cache != null ? cache.get(id) : null;
+		if (cached == null) {
+			return animeRepo.findVersionById(id);
+		}
+		// Busca negativa em cache (NullValue): anime não existe
+		if (!(cached.get() instanceof Anime)) {
+			return Optional.empty();
+		}
+		return Optional.of(((Anime) cached.get()).getVersion());
+	}
+	
+	@Transactional(readOnly = true)
+	public AnimeCatalogVersion findCatalogVersion() {
+		return animeRepo.findCatalogVersion();
+	}
+	
+	// Requisições simultâneas pelo mesmo id dividem uma única ida ao banco (ou ao cache) e o seu resultado
 	public Anime findByIdOrThrowBadRequestException(long id) {
-		return animeRepo.findById(id)
+		return singleFlight.execute("findById", id, () -> animeRepo.findById(id))
 				.orElseThrow(() -> new BadRequestException("Anime not found"));
 	}
 	
+	// Multi-get: primeiro o cache (o mesmo do findById), depois o banco em blocos de WHERE id IN (...)
+	@Transactional(readOnly = true)
+	public AnimeMultiGetResponse findAllByIds(List<Long> ids) {
+		Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+		if (uniqueIds.size() > MULTI_GET_MAX_IDS) {
+			throw new BadRequestException("At most " + MULTI_GET_MAX_IDS + " ids are allowed");
+		}
+		Cache cache = animeCache();
+		
+		Map<Long, Anime> found = new HashMap<>(uniqueIds.size() * 2);
+		List<Long> notCached = new ArrayList<>(uniqueIds.size());
+		for (Long id : uniqueIds) {
+			Cache.ValueWrapper cached = cache != null ? cache.get(id) : null;
+			if (cached == null) {
+				notCached.add(id);
+			} else if (cached.get() instanceof Anime) {
+				found.put(id, (Anime) cached.get());
+			}
+			// Busca negativa em cache (NullValue): anime não existe
+		}
+		
+		for (int start = 0; start < notCached.size(); start += multiGetBatchSize) {
+			List<Long> batch = notCached.subList(start, Math.min(start + multiGetBatchSize, notCached.size()));
+			for (Anime anime : animeRepo.findAllById(batch)) {
+				found.put(anime.getId(), anime);
+				if (cache != null) {
+					// Mesmo formato do @Cacheable do findById (Optional desembrulhado)
+					cache.put(anime.getId(), anime);
+				}
+			}
+		}
+		
+		List<Anime> content = new ArrayList<>(found.size());
+		List<Long> missing = new ArrayList<>();
+		for (Long id : uniqueIds) {
+			Anime anime = found.get(id);
+			if (anime != null) {
+				content.add(anime);
+			} else {
+				missing.add(id);
+			}
+		}
+		return AnimeMultiGetResponse.builder()
+				.content(content)
+				.missing(missing)
+				.build();
+	}
+	
 	@Transactional // ativando rollback
+	@CachePut(cacheNames = CacheConfig.ANIME_CACHE, key = "#result.id")
 	public Anime save(AnimePostRequestBody animePostRequestBody) {
-		return animeRepo.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+		Anime anime = animeRepo.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+		eventPublisher.publishEvent(AnimeChangedEvent.saved(anime.getId(), anime.getName()));
+		return anime;
 	}
 	
+	// Um lote inteiro na mesma transação, os inserts são agrupados pelo hibernate.jdbc.batch_size
+	@Transactional
+	public List<Anime> saveAll(List<AnimePostRequestBody> animePostRequestBodies) {
+		List<Anime> animes = animePostRequestBodies.stream()
+				.map(AnimeMapper.INSTANCE::toAnime)
+				.collect(Collectors.toList());
+		List<Anime> saved = animeRepo.saveAll(animes);
+		saved.forEach(anime -> eventPublisher.publishEvent(AnimeChangedEvent.saved(anime.getId(), anime.getName())));
+		return saved;
+	}
+	
+	// Um único DELETE, o número de linhas afetadas indica se o anime existia
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.ANIME_CACHE, key = "#id")
 	public void delete(long id) {
-		animeRepo.delete(findByIdOrThrowBadRequestException(id));
+		if (animeRepo.deleteAnimeById(id) == 0) {
+			throw new BadRequestException("Anime not found");
+		}
+		eventPublisher.publishEvent(AnimeChangedEvent.deleted(id));
 	}
 	
+	// Um bloco da exclusão em massa (uma transação), retorna os ids que existiam e foram removidos.
+	// Remove do cache só esses ids (depois do commit, pelo proxy transacional), o resto do cache continua valendo
+	@Transactional
+	public List<Long> deleteAll(Collection<Long> ids) {
+		List<Long> existing = animeRepo.findIdsByIdIn(ids);
+		if (!existing.isEmpty()) {
+			animeRepo.deleteAnimesByIdIn(existing);
+			existing.forEach(id -> eventPublisher.publishEvent(AnimeChangedEvent.deleted(id)));
+			Cache cache = animeCache();
+			if (cache != null) {
+				existing.forEach(cache::evict);
+			}
+		}
+		return existing;
+	}
+	
+	@Transactional(readOnly = true)
+	public List<Long> findIdsByName(String name, int limit) {
+		return animeRepo.findIdsByName(name, PageRequest.of(0, limit));
+	}
+	
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.ANIME_CACHE, key = "#animePutRequestBody.id")
 	public void replace(AnimePutRequestBody animePutRequestBody) {
-		//	Verificar se existe antes de fazer a alteração
-		Anime animeSavedDB = findByIdOrThrowBadRequestException(animePutRequestBody.getId());
-		
-		Anime anime = AnimeMapper.INSTANCE.toAnime(animePutRequestBody);
-		anime.setId(animeSavedDB.getId());
-
-		animeRepo.save(anime);
+		update(animePutRequestBody.getId(), animePutRequestBody.getVersion(), animePutRequestBody.getName());
+	}
+	
+	@Transactional
+	@CacheEvict(cacheNames = CacheConfig.ANIME_CACHE, key = "#id")
+	public void patch(long id, AnimePatchRequestBody animePatchRequestBody) {
+		if (animePatchRequestBody.getName() == null) {
+			// Nada para alterar, apenas confere se existe e se a versão é a mesma
+			Long version = findVersionById(id).orElseThrow(() -> new BadRequestException("Anime not found"));
+			checkVersion(animePatchRequestBody.getVersion(), version);
+			return;
+		}
+		update(id, animePatchRequestBody.getVersion(), animePatchRequestBody.getName());
+	}
+	
+	// UPDATE ... WHERE id = ? AND version = ? sem SELECT antes; só consulta de novo quando nenhuma linha mudou
+	private void update(long id, Long version, String name) {
+		if (animeRepo.updateIfVersionMatches(id, version, name) == 0) {
+			if (!animeRepo.existsById(id)) {
+				throw new BadRequestException("Anime not found");
+			}
+			throw new ConflictException("Anime was modified by another request");
+		}
+		eventPublisher.publishEvent(AnimeChangedEvent.updated(id, name));
+	}
+	
+	private static void checkVersion(Long expected, long actual) {
+		if (expected != null && expected != actual) {
+			throw new ConflictException("Anime was modified by another request");
+		}
+	}
+	
+	private Cache animeCache() {
+		CacheManager manager = cacheManager.getIfAvailable();
+		return manager != null ? manager.getCache(CacheConfig.ANIME_CACHE) : null;
 	}
 }
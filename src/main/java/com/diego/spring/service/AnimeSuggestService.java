@@ -0,0 +1,181 @@
+package com.diego.spring.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.diego.spring.event.AnimeChangedEvent;
+import com.diego.spring.response.AnimeSuggestion;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+// Índice ordenado em memória dos nomes (sem acento, minúsculo) para autocomplete por prefixo.
+// Construído no startup e atualizado pelos AnimeChangedEvent, sem consultar o banco nas buscas.
+// Fica vazio até o ApplicationReadyEvent: durante o warm-up suggest não retorna nada.
+@Service
+@Log4j2
+public class AnimeSuggestService {
+	
+	public static final int MAX_LIMIT = 50;
+	
+	private static final char KEY_SEPARATOR = '\u0000';
+	private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+	// Estimativa por entrada: nós do skip list e do hash map, Long e cabeçalhos das Strings
+	private static final long ENTRY_OVERHEAD_BYTES = 160;
+	
+	private final AnimeService animeService;
+	// chave normalizada + separador + id -> id, ordenado para a busca por intervalo
+	private final ConcurrentNavigableMap<String, Long> index = new ConcurrentSkipListMap<>();
+	private final Map<Long, IndexedName> entries = new ConcurrentHashMap<>();
+	private final AtomicLong estimatedBytes = new AtomicLong();
+	// Leitura: aplicar um evento; escrita: entrar e sair da reconstrução (mesmo esquema do AnimeSearchService)
+	private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+	private final Queue<AnimeChangedEvent> eventsDuringRebuild = new ConcurrentLinkedQueue<>();
+	private boolean rebuilding;
+	
+	public AnimeSuggestService(AnimeService animeService, MeterRegistry meterRegistry) {
+		this.animeService = animeService;
+		Gauge.builder("anime.suggest.index.entries", entries, Map::size)
+			.description("Names in the autocomplete index")
+			.register(meterRegistry);
+		Gauge.builder("anime.suggest.index.memory", estimatedBytes, AtomicLong::get)
+			.description("Estimated heap used by the autocomplete index")
+			.baseUnit("bytes")
+			.register(meterRegistry);
+	}
+	
+	public List<AnimeSuggestion> suggest(String prefix, int limit) {
+		int max = Math.max(0, Math.min(limit, MAX_LIMIT));
+		String from = normalize(prefix);
+		ConcurrentNavigableMap<String, Long> matches = index.subMap(from, true, from + Character.MAX_VALUE, false);
+		
+		List<AnimeSuggestion> suggestions = new ArrayList<>(max);
+		for (Map.Entry<String, Long> match : matches.entrySet()) {
+			if (suggestions.size() == max) {
+				break;
+			}
+			// Ignora a chave antiga de um rename em andamento
+			IndexedName indexedName = entries.get(match.getValue());
+			if (indexedName != null && indexedName.key.equals(match.getKey())) {
+				suggestions.add(AnimeSuggestion.builder().id(match.getValue()).name(indexedName.name).build());
+			}
+		}
+		return suggestions;
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void rebuild() {
+		long start = System.nanoTime();
+		// Eventos que chegam durante a leitura do banco são aplicados depois dela: senão a linha lida antes de um
+		// delete ou rename voltaria para o índice por cima do evento
+		setRebuilding(true);
+		try {
+			animeService.forEachAnime(anime -> put(anime.getId(), anime.getName()));
+		} finally {
+			setRebuilding(false);
+		}
+		log.info("Suggest index built with {} names in {} ms", entries.size(), (System.nanoTime() - start) / 1_000_000);
+	}
+	
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAnimeChanged(AnimeChangedEvent event) {
+		rebuildLock.readLock().lock();
+		try {
+			if (rebuilding) {
+				eventsDuringRebuild.add(event);
+			} else {
+				apply(event);
+			}
+		} finally {
+			rebuildLock.readLock().unlock();
+		}
+	}
+	
+	private void setRebuilding(boolean value) {
+		rebuildLock.writeLock().lock();
+		try {
+			if (!value) {
+				AnimeChangedEvent event;
+				while ((event = eventsDuringRebuild.poll()) != null) {
+					apply(event);
+				}
+			}
+			rebuilding = value;
+		} finally {
+			rebuildLock.writeLock().unlock();
+		}
+	}
+	
+	private void apply(AnimeChangedEvent event) {
+		if (event.getType() == AnimeChangedEvent.Type.DELETED) {
+			remove(event.getId());
+		} else {
+			put(event.getId(), event.getName());
+		}
+	}
+	
+	// compute trava o id: trocar a chave antiga pela nova é atômico em relação a outro put/remove do mesmo id,
+	// senão um rename e um delete simultâneos podiam deixar no índice uma chave que nunca mais seria removida
+	void put(Long id, String name) {
+		IndexedName indexedName = new IndexedName(name, normalize(name) + KEY_SEPARATOR + id);
+		entries.compute(id, (key, previous) -> {
+			if (previous != null) {
+				index.remove(previous.key);
+				estimatedBytes.addAndGet(-previous.estimatedBytes());
+			}
+			index.put(indexedName.key, id);
+			estimatedBytes.addAndGet(indexedName.estimatedBytes());
+			return indexedName;
+		});
+	}
+	
+	void remove(Long id) {
+		entries.computeIfPresent(id, (key, previous) -> {
+			index.remove(previous.key);
+			estimatedBytes.addAndGet(-previous.estimatedBytes());
+			return null;
+		});
+	}
+	
+	// Chaves no índice ordenado, igual ao número de nomes quando nenhuma ficou órfã
+	int indexSize() {
+		return index.size();
+	}
+	
+	static String normalize(String value) {
+		String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+		return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+	}
+	
+	private static class IndexedName {
+		private final String name;
+		private final String key;
+		
+		IndexedName(String name, String key) {
+			this.name = name;
+			this.key = key;
+		}
+		
+		long estimatedBytes() {
+			return ENTRY_OVERHEAD_BYTES + 2L * (name.length() + key.length());
+		}
+	}
+}
@@ -2,11 +2,13 @@ package com.diego.spring.service;
 
 import java.util.Optional;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.diego.spring.config.CacheConfig;
 import com.diego.spring.repository.CustomUserRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -17,7 +19,9 @@ public class CustomUserDetailsService implements UserDetailsService {
 	
 	private final CustomUserRepository customUserRepository;
 	
+	// Evita uma query por requisição autenticada (invalidado por CustomUserCacheEvictionListener)
 	@Override
+	@Cacheable(cacheNames = CacheConfig.USER_CACHE)
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 		// TODO Auto-generated method stub
 		return Optional.ofNullable(customUserRepository.findByUsername(username))
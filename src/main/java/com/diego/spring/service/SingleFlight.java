@@ -0,0 +1,120 @@
+package com.diego.spring.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.diego.spring.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Coalescência de leituras idênticas simultâneas ("single-flight"): a primeira chamada para uma chave executa a
+// carga e as que chegam enquanto ela está em andamento recebem o mesmo resultado, ou a mesma exceção.
+// Sem locks: um CompletableFuture por chave num ConcurrentHashMap, removido assim que a carga termina (nada fica
+// em cache aqui). Quem espera desiste depois de anime.single-flight.timeout com ServiceUnavailableException (503)
+// sem cancelar a carga, que continua valendo para os demais.
+// Métrica anime.single-flight.calls{operation, result=leader|coalesced|timeout}.
+
+@Component
+public class SingleFlight {
+
+	public static final String METRIC_NAME = "anime.single-flight.calls";
+
+	private final ConcurrentMap<List<Object>, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Counters> counters = new ConcurrentHashMap<>();
+	private final MeterRegistry meterRegistry;
+	private final long timeoutNanos;
+	private final boolean enabled;
+
+	public SingleFlight(MeterRegistry meterRegistry,
+			@Value("${anime.single-flight.timeout:2s}") Duration timeout,
+			@Value("${anime.single-flight.enabled:true}") boolean enabled) {
+		this.meterRegistry = meterRegistry;
+		this.timeoutNanos = timeout.toNanos();
+		this.enabled = enabled;
+	}
+
+	// operation separa as chaves de cada tipo de consulta e vira a tag da métrica
+	@SuppressWarnings("unchecked")
+	public <T> T execute(String operation, Object key, Supplier<T> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		List<Object> flightKey = List.of(operation, key);
+		CompletableFuture<Object> flight = new CompletableFuture<>();
+		CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+		if (existing != null) {
+			counters(operation).coalesced.increment();
+			return (T) await(operation, existing);
+		}
+
+		counters(operation).leader.increment();
+		T result;
+		try {
+			result = loader.get();
+		} catch (RuntimeException | Error e) {
+			// Mesma instância lançada em todas as threads que esperavam, com a stack trace da carga
+			inFlight.remove(flightKey, flight);
+			flight.completeExceptionally(e);
+			throw e;
+		}
+		// Removido antes de completar: quem chegar depois faz uma carga nova em vez de reaproveitar esta
+		inFlight.remove(flightKey, flight);
+		flight.complete(result);
+		return result;
+	}
+
+	private Object await(String operation, CompletableFuture<Object> flight) {
+		try {
+			return flight.get(timeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			counters(operation).timeout.increment();
+			throw new ServiceUnavailableException("Timed out waiting for a concurrent " + operation + " to finish");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ServiceUnavailableException("Interrupted while waiting for a concurrent " + operation);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	private Counters counters(String operation) {
+		return counters.computeIfAbsent(operation, o -> new Counters(meterRegistry, o));
+	}
+
+	private static class Counters {
+		private final Counter leader;
+		private final Counter coalesced;
+		private final Counter timeout;
+
+		Counters(MeterRegistry meterRegistry, String operation) {
+			this.leader = counter(meterRegistry, operation, "leader");
+			this.coalesced = counter(meterRegistry, operation, "coalesced");
+			this.timeout = counter(meterRegistry, operation, "timeout");
+		}
+
+		private static Counter counter(MeterRegistry meterRegistry, String operation, String result) {
+			return Counter.builder(METRIC_NAME)
+					.tag("operation", operation)
+					.tag("result", result)
+					.register(meterRegistry);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package com.diego.spring.util;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.exception.BadRequestException;
+import com.diego.spring.exception.ConflictException;
+import com.diego.spring.repository.AnimeCatalogVersion;
+
+// ETags fortes: calculados a partir da versão, nunca do corpo serializado
+public final class ETagUtil {
+	
+	private ETagUtil() {
+	}
+	
+	public static String of(Anime anime) {
+		return of(anime.getId(), anime.getVersion());
+	}
+	
+	public static String of(long id, long version) {
+		return "\"" + id + "-" + version + "\"";
+	}
+	
+	public static String of(AnimeCatalogVersion catalogVersion) {
+		return "\"" + catalogVersion.getTotal() + "-" + catalogVersion.getMaxId() + "-"
+				+ catalogVersion.getVersionSum() + "\"";
+	}
+	
+	// If-None-Match: lista separada por vírgulas, "*" ou ETags fracos (W/) também valem (comparação fraca, RFC 7232)
+	public static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+			return false;
+		}
+		for (String candidate : ifNoneMatch.split(",")) {
+			String value = candidate.trim();
+			if (value.equals("*")) {
+				return true;
+			}
+			if (value.startsWith("W/")) {
+				value = value.substring(2);
+			}
+			if (value.equals(etag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	// If-Match: "<id>-<versão>" devolvido pelo GET /anime/{id}; "*" (ou ausente) não restringe a versão
+	public static Long versionOf(String ifMatch, long id) {
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String value = ifMatch.trim();
+		String prefix = "\"" + id + "-";
+		if (!value.startsWith("\"") || !value.endsWith("\"")) {
+			throw new BadRequestException("If-Match must be a strong ETag returned by GET /anime/{id}");
+		}
+		if (!value.startsWith(prefix)) {
+			throw new ConflictException("If-Match does not refer to anime " + id);
+		}
+		try {
+			return Long.valueOf(value.substring(prefix.length(), value.length() - 1));
+		} catch (NumberFormatException e) {
+			throw new BadRequestException("If-Match must be a strong ETag returned by GET /anime/{id}");
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.diego.spring.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.exception.BadRequestException;
+
+import lombok.Value;
+
+// Token opaco da paginação por keyset: guarda a ordenação e a chave (valor ordenado, id) do último item entregue.
+// Formato: base64url(propriedade|direção|id|valor)
+
+@Value
+public class KeysetCursor {
+	
+	public static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name");
+	
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+	
+	String property;
+	Sort.Direction direction;
+	Long lastId;
+	String lastValue;
+	
+	public static KeysetCursor after(Sort.Order order, Anime anime) {
+		String value = "name".equals(order.getProperty()) ? anime.getName() : null;
+		return new KeysetCursor(order.getProperty(), order.getDirection(), anime.getId(), value);
+	}
+	
+	// Primeira ordenação do Pageable (padrão id,asc); o id sempre é usado como desempate
+	public static Sort.Order resolveOrder(Sort sort) {
+		Sort.Order order = sort.stream().findFirst().orElse(Sort.Order.asc("id"));
+		if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+			throw new BadRequestException("Keyset pagination only supports sorting by " + SORTABLE_PROPERTIES);
+		}
+		return order;
+	}
+	
+	public Sort.Order getOrder() {
+		return new Sort.Order(direction, property);
+	}
+	
+	public String encode() {
+		String raw = property + "|" + direction + "|" + lastId + "|" + (lastValue == null ? "" : lastValue);
+		return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static KeysetCursor decode(String cursor) {
+		try {
+			String[] fields = new String(DECODER.decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+			if (fields.length != 4 || !SORTABLE_PROPERTIES.contains(fields[0])) {
+				throw new BadRequestException("Invalid cursor");
+			}
+			String value = "name".equals(fields[0]) ? fields[3] : null;
+			return new KeysetCursor(fields[0], Sort.Direction.valueOf(fields[1]), Long.valueOf(fields[2]), value);
+		} catch (IllegalArgumentException e) {
+			throw new BadRequestException("Invalid cursor");
+		}
+	}
+}
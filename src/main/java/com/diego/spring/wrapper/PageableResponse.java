@@ -1,44 +0,0 @@
-package com.diego.spring.wrapper;
-
-import com.fasterxml.jackson.annotation.JsonCreator;
-import com.fasterxml.jackson.annotation.JsonCreator.Mode;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.JsonNode;
-import java.util.List;
-import lombok.Getter;
-import lombok.Setter;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.PageRequest;
-
-@Getter
-@Setter
-public class PageableResponse<T> extends PageImpl<T> {
-    /**
-	 * 
-	 */
-	private static final long serialVersionUID = 1L;
-	private boolean first;
-    private boolean last;
-    private int totalPages;
-    private int numberOfElements;
-
-    @JsonCreator(mode = Mode.PROPERTIES )
-    public PageableResponse(@JsonProperty("content") List<T> content,
-        @JsonProperty("number") int number,
-        @JsonProperty("size") int size,
-        @JsonProperty("totalElements") int totalElements,
-        @JsonProperty("last") boolean last,
-        @JsonProperty("first") boolean first,
-        @JsonProperty("totalPages") int totalPages,
-        @JsonProperty("numberOfElements") int numberOfElements,
-        @JsonProperty("pageable") JsonNode pageable,
-        @JsonProperty("sort") JsonNode sort) {
-        super(content, PageRequest.of(number, size), totalElements);
-
-        this.last = last;
-        this.first = first;
-        this.totalPages = totalPages;
-        this.numberOfElements = numberOfElements;
-
-    }
-}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.diego.spring.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+import com.diego.spring.security.TokenService;
+
+// Mesma API de animes sem bloquear threads: WebFlux (Netty) e R2DBC. Compilada só com mvn -Preactive.
+// Não há login nem usuários aqui (a consulta de usuários é JPA): os tokens são emitidos pelo POST /auth/login
+// da aplicação servlet e validados com o mesmo anime.security.token.secret.
+// @Profile: com -Preactive as duas aplicações estão no classpath e o PrincipalApplication também varre este pacote
+@SpringBootApplication(exclude = { DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+		ReactiveUserDetailsServiceAutoConfiguration.class })
+@Import(TokenService.class)
+@Profile(ReactiveAnimeApplication.PROFILE)
+public class ReactiveAnimeApplication {
+
+	public static final String PROFILE = "reactive";
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveAnimeApplication.class)
+			.web(WebApplicationType.REACTIVE)
+			.profiles(PROFILE)
+			.run(args);
+	}
+}
@@ -0,0 +1,62 @@
+package com.diego.spring.reactive.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import com.diego.spring.reactive.ReactiveAnimeApplication;
+import com.diego.spring.security.TokenService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+// Mesmas regras do SecurityConfig, apenas com token (Bearer): sem sessão, httpBasic ou formLogin
+@Configuration
+@EnableWebFluxSecurity
+@Profile(ReactiveAnimeApplication.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveSecurityConfig {
+
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private final TokenService tokenService;
+
+	@Bean
+	public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+		// O token já é validado na conversão, o AuthenticationManager só repassa a autenticação
+		AuthenticationWebFilter tokenFilter = new AuthenticationWebFilter(
+				(ReactiveAuthenticationManager) Mono::just);
+		tokenFilter.setServerAuthenticationConverter(exchange -> Mono
+				.justOrEmpty(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+				.filter(header -> header.startsWith(BEARER_PREFIX))
+				.flatMap(header -> Mono.justOrEmpty(tokenService.parse(header.substring(BEARER_PREFIX.length()))))
+				.map(customUser -> new UsernamePasswordAuthenticationToken(customUser, null,
+						customUser.getAuthorities())));
+
+		return http.csrf().disable()
+				.httpBasic().disable()
+				.formLogin().disable()
+				.securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+				.exceptionHandling().authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED))
+				.and()
+				.addFilterAt(tokenFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+				.authorizeExchange()
+				.pathMatchers("/anime/admin/**").hasRole("ADMIN") // Regras mais restritivas primeiro
+				.pathMatchers("/anime/**").hasRole("USER")
+				.pathMatchers("/actuator/**").permitAll()
+				.anyExchange().authenticated()
+				.and()
+				.build();
+	}
+}
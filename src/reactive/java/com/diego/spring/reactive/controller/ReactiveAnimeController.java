@@ -0,0 +1,90 @@
+package com.diego.spring.reactive.controller;
+
+import javax.validation.Valid;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.reactive.ReactiveAnimeApplication;
+import com.diego.spring.reactive.service.ReactiveAnimeService;
+import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.request.AnimePutRequestBody;
+import com.diego.spring.util.ETagUtil;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Mesmos caminhos, validação e respostas de erro do AnimeController para as operações principais
+@RestController
+@RequestMapping("anime")
+@Profile(ReactiveAnimeApplication.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveAnimeController {
+
+	private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+	private final ReactiveAnimeService animeService;
+
+	// Sem COUNT, a resposta é a lista da página: localhost:8080/anime?page=1&size=5
+	@GetMapping
+	public Flux<Anime> list(@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "20") int size){
+		return animeService.listAll(page, size);
+	}
+
+	@GetMapping("/{id}")
+	public Mono<ResponseEntity<Anime>> findByID(@PathVariable long id,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+		return animeService.findByIdOrThrowBadRequestException(id)
+				.map(anime -> {
+					String etag = ETagUtil.of(anime);
+					if (ETagUtil.matches(ifNoneMatch, etag)) {
+						return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+					}
+					return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(anime);
+				});
+	}
+
+	@GetMapping("/find")
+	public Flux<Anime> findByName(@RequestParam String name){
+		return animeService.findByName(name);
+	}
+
+	@PostMapping
+	public Mono<ResponseEntity<Anime>> save(@RequestBody @Valid AnimePostRequestBody animePostRequestBody){
+		return animeService.save(animePostRequestBody)
+				.map(anime -> new ResponseEntity<>(anime, HttpStatus.CREATED));
+	}
+
+	// Versão esperada no corpo (version) ou no If-Match (ETag do GET /anime/{id}), 409 se o anime mudou
+	@PutMapping
+	public Mono<ResponseEntity<Void>> replace(@RequestBody @Valid AnimePutRequestBody animePutRequestBody,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+		if (ifMatch != null && animePutRequestBody.getId() != null) {
+			animePutRequestBody.setVersion(ETagUtil.versionOf(ifMatch, animePutRequestBody.getId()));
+		}
+		return animeService.replace(animePutRequestBody)
+				.thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+	}
+
+	@DeleteMapping("/admin/{id}")
+	public Mono<ResponseEntity<Void>> delete(@PathVariable long id){
+		return animeService.delete(id)
+				.thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+	}
+}
@@ -0,0 +1,23 @@
+package com.diego.spring.reactive.handler;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import com.diego.spring.exception.ValidationExceptionDetails;
+import com.diego.spring.handler.RestRequestHandler;
+import com.diego.spring.reactive.ReactiveAnimeApplication;
+
+// Herda os handlers de BadRequestException e ConflictException; no WebFlux o @Valid falha com
+// WebExchangeBindException em vez de MethodArgumentNotValidException
+@ControllerAdvice
+@Profile(ReactiveAnimeApplication.PROFILE)
+public class ReactiveRestRequestHandler extends RestRequestHandler {
+
+	@ExceptionHandler(WebExchangeBindException.class)
+	public ResponseEntity<ValidationExceptionDetails> handlerWebExchangeBindException(WebExchangeBindException ex) {
+		return validationExceptionDetails(ex.getBindingResult(), ex);
+	}
+}
@@ -0,0 +1,73 @@
+package com.diego.spring.reactive.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import com.diego.spring.reactive.ReactiveAnimeApplication;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+// Ids da mesma tabela anime_seq usada pelo Hibernate (Anime: SEQUENCE, allocationSize = 50, no MySQL emulada
+// por uma tabela), reservando blocos exatamente como o otimizador "pooled" do Hibernate: o valor lido é o
+// último id do bloco e a tabela avança 50. Assim as duas aplicações podem escrever no mesmo banco.
+@Component
+@Profile(ReactiveAnimeApplication.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveAnimeIdGenerator {
+
+	static final int ALLOCATION_SIZE = 50;
+	private static final long INITIAL_VALUE = 1;
+
+	private final DatabaseClient databaseClient;
+	private final TransactionalOperator transactionalOperator;
+
+	private long next = 1;
+	private long last = 0;
+
+	public Mono<Long> nextId() {
+		synchronized (this) {
+			if (next <= last) {
+				return Mono.just(next++);
+			}
+		}
+		// Reservas concorrentes geram blocos distintos; o que chegar por último é descartado (só abre um buraco)
+		return reserveBlock().map(block -> {
+			synchronized (this) {
+				if (next > last) {
+					next = block[0];
+					last = block[1];
+				}
+				return next++;
+			}
+		});
+	}
+
+	// [primeiro, último] do bloco reservado
+	private Mono<long[]> reserveBlock() {
+		return advance().flatMap(value -> value == INITIAL_VALUE
+				// Tabela recém-criada: o Hibernate usa 1 como início e avança mais uma vez para achar o fim
+				? advance().map(last -> new long[] { value, last })
+				: Mono.just(new long[] { value - ALLOCATION_SIZE + 1, value }));
+	}
+
+	private Mono<Long> advance() {
+		return databaseClient.sql("select next_val from anime_seq for update")
+				.map(row -> row.get(0, Long.class))
+				.one()
+				.flatMap(value -> databaseClient.sql("update anime_seq set next_val = :next where next_val = :current")
+						.bind("next", value + ALLOCATION_SIZE)
+						.bind("current", value)
+						.fetch()
+						.rowsUpdated()
+						.flatMap(updated -> updated == 1
+								? Mono.just(value)
+								: Mono.error(new OptimisticLockingFailureException("anime_seq changed concurrently"))))
+				.as(transactionalOperator::transactional)
+				.retryWhen(Retry.max(3).filter(OptimisticLockingFailureException.class::isInstance));
+	}
+}
@@ -0,0 +1,87 @@
+package com.diego.spring.reactive.repository;
+
+import java.util.function.BiFunction;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.reactive.ReactiveAnimeApplication;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Mesma tabela e mesmas consultas do AnimeRepository (JPA), em SQL sobre o DatabaseClient
+@Repository
+@Profile(ReactiveAnimeApplication.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveAnimeRepository {
+
+	private static final BiFunction<Row, RowMetadata, Anime> ANIME = (row, metadata) -> Anime.builder()
+			.id(row.get("id", Long.class))
+			.name(row.get("name", String.class))
+			.version(row.get("version", Long.class))
+			.build();
+
+	private final DatabaseClient databaseClient;
+
+	public Flux<Anime> findAll(long offset, int limit) {
+		return databaseClient.sql("select id, name, version from anime order by id limit :limit offset :offset")
+				.bind("limit", limit)
+				.bind("offset", offset)
+				.map(ANIME)
+				.all();
+	}
+
+	public Mono<Anime> findById(long id) {
+		return databaseClient.sql("select id, name, version from anime where id = :id")
+				.bind("id", id)
+				.map(ANIME)
+				.one();
+	}
+
+	public Flux<Anime> findByName(String name) {
+		return databaseClient.sql("select id, name, version from anime where name = :name")
+				.bind("name", name)
+				.map(ANIME)
+				.all();
+	}
+
+	public Mono<Boolean> existsById(long id) {
+		return databaseClient.sql("select count(*) from anime where id = :id")
+				.bind("id", id)
+				.map(row -> row.get(0, Long.class) > 0)
+				.one();
+	}
+
+	public Mono<Anime> insert(Anime anime) {
+		return databaseClient.sql("insert into anime (id, name, version) values (:id, :name, :version)")
+				.bind("id", anime.getId())
+				.bind("name", anime.getName())
+				.bind("version", anime.getVersion())
+				.fetch()
+				.rowsUpdated()
+				.thenReturn(anime);
+	}
+
+	// Equivalente ao AnimeRepository.updateIfVersionMatches: sem versão a alteração é incondicional
+	public Mono<Integer> updateIfVersionMatches(long id, Long version, String name) {
+		DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(version == null
+				? "update anime set name = :name, version = version + 1 where id = :id"
+				: "update anime set name = :name, version = version + 1 where id = :id and version = :version")
+				.bind("id", id)
+				.bind("name", name);
+		return (version == null ? spec : spec.bind("version", version)).fetch().rowsUpdated();
+	}
+
+	public Mono<Integer> deleteById(long id) {
+		return databaseClient.sql("delete from anime where id = :id")
+				.bind("id", id)
+				.fetch()
+				.rowsUpdated();
+	}
+}
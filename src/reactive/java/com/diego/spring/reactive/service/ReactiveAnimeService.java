@@ -0,0 +1,74 @@
+package com.diego.spring.reactive.service;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.exception.BadRequestException;
+import com.diego.spring.exception.ConflictException;
+import com.diego.spring.mapper.AnimeMapper;
+import com.diego.spring.reactive.ReactiveAnimeApplication;
+import com.diego.spring.reactive.repository.ReactiveAnimeIdGenerator;
+import com.diego.spring.reactive.repository.ReactiveAnimeRepository;
+import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.request.AnimePutRequestBody;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Mesmas regras do AnimeService (mensagens, 400 para inexistente, 409 para versão desatualizada).
+// Sem cache nem AnimeChangedEvent: busca e sugestões pertencem à aplicação servlet.
+@Service
+@Profile(ReactiveAnimeApplication.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveAnimeService {
+
+	public static final int MAX_PAGE_SIZE = 1000;
+
+	private final ReactiveAnimeRepository animeRepo;
+	private final ReactiveAnimeIdGenerator idGenerator;
+
+	public Flux<Anime> listAll(int page, int size) {
+		if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+			return Flux.error(new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE));
+		}
+		return animeRepo.findAll((long) page * size, size);
+	}
+
+	public Flux<Anime> findByName(String name) {
+		return animeRepo.findByName(name);
+	}
+
+	public Mono<Anime> findByIdOrThrowBadRequestException(long id) {
+		return animeRepo.findById(id)
+				.switchIfEmpty(Mono.error(() -> new BadRequestException("Anime not found")));
+	}
+
+	public Mono<Anime> save(AnimePostRequestBody animePostRequestBody) {
+		Anime anime = AnimeMapper.INSTANCE.toAnime(animePostRequestBody);
+		return idGenerator.nextId()
+				.flatMap(id -> {
+					anime.setId(id);
+					return animeRepo.insert(anime);
+				});
+	}
+
+	public Mono<Void> delete(long id) {
+		return animeRepo.deleteById(id)
+				.flatMap(deleted -> deleted == 0
+						? Mono.error(new BadRequestException("Anime not found"))
+						: Mono.<Void>empty());
+	}
+
+	// UPDATE ... WHERE id = ? AND version = ? sem SELECT antes; só consulta de novo quando nenhuma linha mudou
+	public Mono<Void> replace(AnimePutRequestBody animePutRequestBody) {
+		long id = animePutRequestBody.getId() == null ? 0 : animePutRequestBody.getId();
+		return animeRepo.updateIfVersionMatches(id, animePutRequestBody.getVersion(), animePutRequestBody.getName())
+				.flatMap(updated -> updated > 0
+						? Mono.<Void>empty()
+						: animeRepo.existsById(id).flatMap(exists -> Mono.error(exists
+								? new ConflictException("Anime was modified by another request")
+								: new BadRequestException("Anime not found"))));
+	}
+}
@@ -0,0 +1,220 @@
+package com.diego.spring.reactive.integration;
+
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.r2dbc.connection.init.ConnectionFactoryInitializer;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.domain.CustomUser;
+import com.diego.spring.reactive.ReactiveAnimeApplication;
+import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.request.AnimePutRequestBody;
+import com.diego.spring.security.TokenService;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+@SpringBootTest(classes = ReactiveAnimeApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+			"spring.main.web-application-type=reactive",
+			"spring.r2dbc.url=r2dbc:h2:mem:///anime-${random.uuid}?options=DB_CLOSE_DELAY=-1",
+			"spring.r2dbc.username=sa",
+			"spring.r2dbc.password="
+		})
+@ActiveProfiles(ReactiveAnimeApplication.PROFILE)
+@Import(ReactiveAnimeControllerIT.config.class) // classes explícito: a configuração aninhada não é detectada sozinha
+class ReactiveAnimeControllerIT {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	private static final CustomUser USER = CustomUser.builder()
+		.username("joao")
+		.authorities("ROLE_USER")
+		.build();
+
+	private static final CustomUser ADMIN = CustomUser.builder()
+		.username("diego")
+		.authorities("ROLE_USER,ROLE_ADMIN")
+		.build();
+
+	@TestConfiguration
+	static class config {
+
+		@Bean
+		public ConnectionFactoryInitializer schemaInitializer(ConnectionFactory connectionFactory) {
+			ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+			initializer.setConnectionFactory(connectionFactory);
+			initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("reactive-schema.sql")));
+			return initializer;
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		databaseClient.sql("delete from anime").fetch().rowsUpdated().block();
+	}
+
+	@Test
+	@DisplayName("save returns anime with id from anime_seq and findById returns it with ETag when successful")
+	void save_ReturnsAnimeFromFindById_WhenSuccessful() {
+		Anime saved = save("Anime A1");
+
+		Anime found = webTestClient.get().uri("/anime/{id}", saved.getId())
+				.headers(headers -> headers.setBearerAuth(token(USER)))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + saved.getId() + "-0\"")
+				.expectBody(Anime.class)
+				.returnResult()
+				.getResponseBody();
+
+		Assertions.assertThat(found).isEqualTo(saved);
+		Assertions.assertThat(found.getVersion()).isZero();
+	}
+
+	@Test
+	@DisplayName("save allocates ids in blocks like the Hibernate pooled optimizer")
+	void save_AllocatesIdsInHibernateBlocks_WhenSavingMoreThanOneBlock() {
+		long first = save("Anime A1").getId();
+		for (int i = 0; i < 60; i++) {
+			save("Anime " + i);
+		}
+
+		Long nextVal = databaseClient.sql("select next_val from anime_seq")
+				.map(row -> row.get(0, Long.class))
+				.one()
+				.block();
+		List<Long> ids = databaseClient.sql("select id from anime order by id")
+				.map(row -> row.get(0, Long.class))
+				.all()
+				.collectList()
+				.block();
+
+		Assertions.assertThat(ids).hasSize(61).doesNotHaveDuplicates().allMatch(id -> id >= first);
+		// O próximo bloco do Hibernate começa depois do último id reservado aqui
+		Assertions.assertThat(nextVal - 50).isGreaterThanOrEqualTo(ids.get(ids.size() - 1));
+	}
+
+	@Test
+	@DisplayName("save returns 400 with field errors like the servlet API when name is empty")
+	void save_Returns400WithFieldErrors_WhenNameIsEmpty() {
+		webTestClient.post().uri("/anime")
+				.headers(headers -> headers.setBearerAuth(token(USER)))
+				.bodyValue(new AnimePostRequestBody(""))
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.title").isEqualTo("Bad request exception, invalid fields")
+				.jsonPath("$.fields").isEqualTo("name");
+	}
+
+	@Test
+	@DisplayName("findById returns 400 when anime does not exist")
+	void findById_Returns400_WhenAnimeDoesNotExist() {
+		webTestClient.get().uri("/anime/{id}", 999)
+				.headers(headers -> headers.setBearerAuth(token(USER)))
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody()
+				.jsonPath("$.details").isEqualTo("Anime not found");
+	}
+
+	@Test
+	@DisplayName("list returns the requested page and 401 without token")
+	void list_ReturnsPage_WhenAuthenticated() {
+		save("Anime A1");
+		save("Anime A2");
+		save("Anime A3");
+
+		webTestClient.get().uri("/anime?page=1&size=2")
+				.headers(headers -> headers.setBearerAuth(token(USER)))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBodyList(Anime.class)
+				.hasSize(1);
+		webTestClient.get().uri("/anime")
+				.exchange()
+				.expectStatus().isUnauthorized();
+	}
+
+	@Test
+	@DisplayName("replace updates anime and returns 409 when version is stale")
+	void replace_Returns409_WhenVersionIsStale() {
+		Anime saved = save("Anime A1");
+
+		webTestClient.put().uri("/anime")
+				.headers(headers -> headers.setBearerAuth(token(USER)))
+				.bodyValue(AnimePutRequestBody.builder().id(saved.getId()).name("Anime A2").version(0L).build())
+				.exchange()
+				.expectStatus().isNoContent();
+		webTestClient.put().uri("/anime")
+				.headers(headers -> headers.setBearerAuth(token(USER)))
+				.bodyValue(AnimePutRequestBody.builder().id(saved.getId()).name("Anime A3").version(0L).build())
+				.exchange()
+				.expectStatus().isEqualTo(409);
+
+		webTestClient.get().uri("/anime/find?name={name}", "Anime A2")
+				.headers(headers -> headers.setBearerAuth(token(USER)))
+				.exchange()
+				.expectBodyList(Anime.class)
+				.value(animes -> Assertions.assertThat(animes).extracting(Anime::getVersion).containsExactly(1L));
+	}
+
+	@Test
+	@DisplayName("delete removes anime when user is admin and returns 403 otherwise")
+	void delete_RemovesAnime_WhenUserIsAdmin() {
+		Anime saved = save("Anime A1");
+
+		webTestClient.delete().uri("/anime/admin/{id}", saved.getId())
+				.headers(headers -> headers.setBearerAuth(token(USER)))
+				.exchange()
+				.expectStatus().isForbidden();
+		webTestClient.delete().uri("/anime/admin/{id}", saved.getId())
+				.headers(headers -> headers.setBearerAuth(token(ADMIN)))
+				.exchange()
+				.expectStatus().isNoContent();
+		webTestClient.delete().uri("/anime/admin/{id}", saved.getId())
+				.headers(headers -> headers.setBearerAuth(token(ADMIN)))
+				.exchange()
+				.expectStatus().isBadRequest()
+				.expectBody(Map.class)
+				.value(body -> Assertions.assertThat(body).containsEntry("details", "Anime not found"));
+	}
+
+	private Anime save(String name) {
+		return webTestClient.post().uri("/anime")
+				.headers(headers -> headers.setBearerAuth(token(USER)))
+				.bodyValue(new AnimePostRequestBody(name))
+				.exchange()
+				.expectStatus().isCreated()
+				.expectBody(Anime.class)
+				.returnResult()
+				.getResponseBody();
+	}
+
+	private String token(CustomUser customUser) {
+		return tokenService.issue(customUser).getToken();
+	}
+}
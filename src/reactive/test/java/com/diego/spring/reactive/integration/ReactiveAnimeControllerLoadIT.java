@@ -0,0 +1,93 @@
+package com.diego.spring.reactive.integration;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.diego.spring.domain.CustomUser;
+import com.diego.spring.integration.AnimeLoadTestSupport;
+import com.diego.spring.reactive.ReactiveAnimeApplication;
+import com.diego.spring.security.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.log4j.Log4j2;
+
+// Executar com: mvn test -Preactive -Dtest=ReactiveAnimeControllerLoadIT [-Dload.rows=... -Dload.threads=...]
+// Mesma carga "core" de AnimeControllerLoadIT (mvn test -Pload-tests -Dload.mix=core) contra a pilha reativa;
+// os resultados ficam lado a lado em target/load-test/servlet-core.json e reactive-core.json.
+
+@SpringBootTest(classes = ReactiveAnimeApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+			"spring.main.web-application-type=reactive",
+			"spring.r2dbc.url=r2dbc:h2:mem:///anime-${random.uuid}?options=DB_CLOSE_DELAY=-1",
+			"spring.r2dbc.username=sa",
+			"spring.r2dbc.password=",
+			"anime.security.token.ttl=12h"
+		})
+@ActiveProfiles(ReactiveAnimeApplication.PROFILE)
+@Import(ReactiveAnimeControllerIT.config.class)
+@Log4j2
+@DisplayName("Load test for Reactive Anime Controller")
+class ReactiveAnimeControllerLoadIT extends AnimeLoadTestSupport {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	@DisplayName("core workload throughput and latency do not regress against baseline")
+	void coreWorkload_DoesNotRegress_WhenComparedToBaseline() throws Exception {
+		seed();
+		// Sem usuários na pilha reativa: os tokens são emitidos com o mesmo segredo que o /auth/login usaria
+		userToken = tokenService.issue(CustomUser.builder()
+				.username("joao")
+				.authorities("ROLE_USER")
+				.build()).getToken();
+		adminToken = tokenService.issue(CustomUser.builder()
+				.username("diego")
+				.authorities("ROLE_USER,ROLE_ADMIN")
+				.build()).getToken();
+
+		runAndCompare("reactive-core", coreOperations(), Map.of("mix", "core"));
+	}
+
+	@Override
+	protected int port() {
+		return port;
+	}
+
+	@Override
+	protected ObjectMapper objectMapper() {
+		return objectMapper;
+	}
+
+	// Insert único gerado pelo H2, depois anime_seq avança para que o primeiro bloco comece depois dos ids usados
+	private void seed() {
+		long start = System.nanoTime();
+		databaseClient.sql("insert into anime (id, name, version) "
+				+ "select x, concat('Anime ', lpad(x, 7, '0')), 0 from system_range(1, " + ROWS + ")")
+			.fetch()
+			.rowsUpdated()
+			.block();
+		databaseClient.sql("update anime_seq set next_val = " + (ROWS + 100))
+			.fetch()
+			.rowsUpdated()
+			.block();
+		log.info("Seeded {} animes in {} ms", ROWS, (System.nanoTime() - start) / 1_000_000);
+	}
+}
@@ -0,0 +1,5 @@
+-- Mesmo esquema que o Hibernate (ddl-auto) cria no MySQL: anime_seq é a tabela que emula a sequence
+create table if not exists anime (id bigint not null primary key, name varchar(255), version bigint not null);
+create table if not exists anime_seq (next_val bigint);
+insert into anime_seq (next_val) select 1 where not exists (select 1 from anime_seq);
+create index if not exists idx_anime_name_id on anime (name, id);
@@ -0,0 +1,74 @@
+package com.diego.spring.benchmark;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.diego.spring.repository.AnimeRepository;
+import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.response.AnimeBatchResponse;
+import com.diego.spring.service.AnimeBatchService;
+import com.diego.spring.service.AnimeService;
+
+import lombok.extern.log4j.Log4j2;
+
+// Executar com: mvn test -Pbenchmarks -Dtest=AnimeBatchInsertBenchmark [-Dbenchmark.items=20000]
+// Compara inserts/s de AnimeService.save (uma transação por item) com AnimeBatchService (lotes JDBC).
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({AnimeService.class, AnimeBatchService.class})
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada save/lote faz o próprio commit
+@Log4j2
+@DisplayName("Benchmark single x batch insert")
+class AnimeBatchInsertBenchmark {
+	
+	private static final int ITEMS = Integer.getInteger("benchmark.items", 20_000);
+	
+	@Autowired
+	private AnimeService animeService;
+	
+	@Autowired
+	private AnimeBatchService animeBatchService;
+	
+	@Autowired
+	private AnimeRepository animeRepository;
+	
+	@Test
+	@DisplayName("batch insert throughput against single insert")
+	void insert_Throughput_SingleVersusBatch() {
+		List<AnimePostRequestBody> single = bodies("Single");
+		List<AnimePostRequestBody> batch = bodies("Batch");
+		
+		long start = System.nanoTime();
+		single.forEach(animeService::save);
+		double singlePerSecond = ITEMS / ((System.nanoTime() - start) / 1e9);
+		
+		start = System.nanoTime();
+		AnimeBatchResponse response = animeBatchService.ingest(batch.iterator());
+		double batchPerSecond = ITEMS / ((System.nanoTime() - start) / 1e9);
+		
+		log.info("items={} single: {} inserts/s, batch: {} inserts/s ({}x)", ITEMS,
+				Math.round(singlePerSecond), Math.round(batchPerSecond), Math.round(batchPerSecond / singlePerSecond));
+		
+		Assertions.assertThat(response.getCreated()).isEqualTo(ITEMS);
+		Assertions.assertThat(animeRepository.count()).isEqualTo(2L * ITEMS);
+	}
+	
+	private static List<AnimePostRequestBody> bodies(String prefix) {
+		return IntStream.range(0, ITEMS)
+				.mapToObj(i -> new AnimePostRequestBody(prefix + " " + i))
+				.collect(Collectors.toList());
+	}
+}
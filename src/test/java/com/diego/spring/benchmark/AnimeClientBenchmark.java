@@ -0,0 +1,144 @@
+package com.diego.spring.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.RestTemplate;
+
+import com.diego.spring.client.AnimeClient;
+import com.diego.spring.domain.Anime;
+import com.diego.spring.domain.CustomUser;
+import com.diego.spring.security.TokenService;
+
+import lombok.extern.log4j.Log4j2;
+
+// Executar com: mvn test -Pbenchmarks -Dtest=AnimeClientBenchmark [-Dbenchmark.threads=16 -Dbenchmark.seconds=10]
+// Requisições por segundo contra o servidor embarcado (GET /anime/{id}, ids aleatórios entre ROWS):
+// - newRestTemplate: o padrão do SpringClient, um RestTemplate (HttpURLConnection) novo por chamada
+// - animeClient: pool de conexões compartilhado, sem cache
+// - animeClientCached: pool de conexões e cache com ETag, a maioria das respostas vira 304
+// - animeClientFanOut: findByIdsAsync com 20 ids por chamada a partir de uma única thread (maxConcurrency)
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.jpa.show-sql=false",
+		"logging.level.org.hibernate.SQL=WARN",
+		"anime.rate-limit.enabled=false"
+})
+@AutoConfigureTestDatabase
+@Log4j2
+@DisplayName("Benchmark per-call RestTemplate x pooled AnimeClient")
+class AnimeClientBenchmark {
+	
+	private static final int ROWS = 1_000;
+	private static final int THREADS = Integer.getInteger("benchmark.threads", 8);
+	private static final int SECONDS = Integer.getInteger("benchmark.seconds", 5);
+	private static final int FAN_OUT = 20;
+	
+	@LocalServerPort
+	private int port;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private TokenService tokenService;
+	
+	@Test
+	@DisplayName("requests per second of per-call RestTemplate and pooled AnimeClient")
+	void requestsPerSecond_PerCallRestTemplateVersusAnimeClient() throws Exception {
+		jdbcTemplate.batchUpdate("insert into anime (id, name, version) values (?, ?, 0)",
+				IntStream.range(0, ROWS)
+					.mapToObj(i -> new Object[] { i + 1L, "Anime " + i })
+					.collect(Collectors.toList()));
+		String token = tokenService.issue(CustomUser.builder().username("joao").authorities("ROLE_USER").build())
+				.getToken();
+		String baseUrl = "http://localhost:" + port;
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth(token);
+		
+		double newRestTemplate = requestsPerSecond(THREADS, id -> new RestTemplate().exchange(baseUrl + "/anime/{id}",
+				HttpMethod.GET, new HttpEntity<>(headers), Anime.class, id));
+		double animeClient;
+		try (AnimeClient client = client(baseUrl, token, 0)) {
+			animeClient = requestsPerSecond(THREADS, client::findById);
+		}
+		double animeClientCached;
+		try (AnimeClient client = client(baseUrl, token, ROWS)) {
+			animeClientCached = requestsPerSecond(THREADS, client::findById);
+		}
+		double animeClientFanOut;
+		try (AnimeClient client = client(baseUrl, token, 0)) {
+			animeClientFanOut = FAN_OUT * requestsPerSecond(1, id -> client.findByIdsAsync(LongStream.range(0, FAN_OUT)
+					.mapToObj(i -> randomId())
+					.collect(Collectors.toList())).join());
+			Assertions.assertThat(client.findByIdsAsync(List.of(1L, 2L)).join()).extracting(Anime::getId)
+				.containsExactly(1L, 2L);
+		}
+		
+		log.info("threads={} req/s: newRestTemplate {}, animeClient {}, animeClientCached {}, animeClientFanOut {}",
+				THREADS, newRestTemplate, animeClient, animeClientCached, animeClientFanOut);
+	}
+	
+	private AnimeClient client(String baseUrl, String token, long cacheSize) {
+		return AnimeClient.builder()
+				.baseUrl(baseUrl)
+				.token(token)
+				.maxConnections(THREADS)
+				.cacheSize(cacheSize)
+				.build();
+	}
+	
+	// Aquecimento de 1s e depois SECONDS segundos de medição, cada thread chama request em loop
+	private double requestsPerSecond(int threads, LongConsumer request) throws Exception {
+		run(threads, 1, request);
+		return Math.round(run(threads, SECONDS, request) * 10.0 / SECONDS) / 10.0;
+	}
+	
+	private long run(int threads, int seconds, LongConsumer request) throws Exception {
+		long end = System.nanoTime() + seconds * 1_000_000_000L;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Long>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				futures.add(executor.submit(() -> {
+					long count = 0;
+					while (System.nanoTime() < end) {
+						request.accept(randomId());
+						count++;
+					}
+					return count;
+				}));
+			}
+			long total = 0;
+			for (Future<Long> future : futures) {
+				total += future.get();
+			}
+			return total;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private static long randomId() {
+		return ThreadLocalRandom.current().nextLong(1, ROWS + 1L);
+	}
+}
@@ -0,0 +1,96 @@
+package com.diego.spring.benchmark;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.repository.AnimeRepository;
+import com.diego.spring.service.AnimeService;
+import com.diego.spring.util.KeysetCursor;
+
+import lombok.extern.log4j.Log4j2;
+
+// Executar com: mvn test -Pbenchmarks -Dtest=AnimeKeysetPaginationBenchmark [-Dbenchmark.rows=100000]
+// Compara a latência da página 1 e da página 10.000 (size 10) com OFFSET/COUNT e com keyset.
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import(AnimeService.class)
+@Log4j2
+@DisplayName("Benchmark offset x keyset pagination")
+class AnimeKeysetPaginationBenchmark {
+	
+	private static final int PAGE_SIZE = 10;
+	private static final int DEEP_PAGE = 10_000;
+	private static final int ROWS = Integer.getInteger("benchmark.rows", PAGE_SIZE * DEEP_PAGE);
+	private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 50);
+	
+	private static final Sort SORT = Sort.by("name").and(Sort.by("id"));
+	
+	@Autowired
+	private AnimeRepository animeRepository;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private AnimeService animeService;
+	
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate.batchUpdate("insert into anime (id, name, version) values (?, ?, 0)",
+				IntStream.range(0, ROWS)
+					.mapToObj(i -> new Object[] { i + 1L, String.format("Anime %07d", (i * 7919) % ROWS) })
+					.collect(Collectors.toList()));
+	}
+	
+	@Test
+	@DisplayName("offset and keyset pagination latency on page 1 and page 10,000")
+	void pagination_Latency_OffsetVersusKeyset() {
+		int deepPage = Math.min(DEEP_PAGE, ROWS / PAGE_SIZE) - 1;
+		// Chave do último item da página anterior à página profunda (não entra na medição)
+		Anime lastOfPreviousPage = animeRepository.findAll(PageRequest.of(deepPage * PAGE_SIZE - 1, 1, SORT))
+				.getContent().get(0);
+		KeysetCursor deepCursor = KeysetCursor.after(Sort.Order.asc("name"), lastOfPreviousPage);
+		
+		double offsetFirst = medianMicros(() -> animeService.listAll(PageRequest.of(0, PAGE_SIZE, SORT)));
+		double offsetDeep = medianMicros(() -> animeService.listAll(PageRequest.of(deepPage, PAGE_SIZE, SORT)));
+		double keysetFirst = medianMicros(() -> animeService.listAllKeyset(null, Sort.Order.asc("name"), PAGE_SIZE));
+		double keysetDeep = medianMicros(() -> animeService.listAllKeyset(deepCursor, Sort.Order.asc("name"), PAGE_SIZE));
+		
+		log.info("rows={} pageSize={} deepPage={}", ROWS, PAGE_SIZE, deepPage + 1);
+		log.info("offset page 1: {} us, page {}: {} us", offsetFirst, deepPage + 1, offsetDeep);
+		log.info("keyset page 1: {} us, page {}: {} us", keysetFirst, deepPage + 1, keysetDeep);
+		
+		Slice<Anime> offsetPage = animeService.listAll(PageRequest.of(deepPage, PAGE_SIZE, SORT));
+		Slice<Anime> keysetPage = animeService.listAllKeyset(deepCursor, Sort.Order.asc("name"), PAGE_SIZE);
+		Assertions.assertThat(keysetPage.getContent()).isEqualTo(offsetPage.getContent());
+	}
+	
+	private static double medianMicros(Supplier<Slice<Anime>> query) {
+		for (int i = 0; i < ITERATIONS / 5 + 1; i++) {
+			query.get();
+		}
+		long[] samples = new long[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			query.get();
+			samples[i] = System.nanoTime() - start;
+		}
+		Arrays.sort(samples);
+		return samples[ITERATIONS / 2] / 1_000.0;
+	}
+}
@@ -0,0 +1,90 @@
+package com.diego.spring.benchmark;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.diego.spring.config.CacheConfig;
+import com.diego.spring.domain.Anime;
+import com.diego.spring.response.AnimeMultiGetResponse;
+import com.diego.spring.service.AnimeService;
+
+import lombok.extern.log4j.Log4j2;
+
+// Executar com: mvn test -Pbenchmarks -Dtest=AnimeMultiGetBenchmark [-Dbenchmark.ids=500]
+// Compara N chamadas de findByIdOrThrowBadRequestException (o loop dos consumidores) com um findAllByIds,
+// com o cache vazio e com o cache cheio. Não inclui o custo das N requisições HTTP.
+
+@DataJpaTest(properties = "spring.jpa.show-sql=false")
+@Import({AnimeService.class, CacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cache só é populado depois do commit
+@Log4j2
+@DisplayName("Benchmark single get loop x multi-get")
+class AnimeMultiGetBenchmark {
+	
+	private static final int ROWS = 50_000;
+	private static final int IDS = Integer.getInteger("benchmark.ids", 500);
+	private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 20);
+	
+	@Autowired
+	private AnimeService animeService;
+	
+	@Autowired
+	private CacheManager cacheManager;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Test
+	@DisplayName("single get loop and multi-get latency with cold and warm cache")
+	void multiGet_Latency_LoopVersusMultiGet() {
+		jdbcTemplate.batchUpdate("insert into anime (id, name, version) values (?, ?, 0)",
+				IntStream.range(0, ROWS)
+					.mapToObj(i -> new Object[] { i + 1L, "Anime " + i })
+					.collect(Collectors.toList()));
+		// Ids espalhados pela tabela
+		List<Long> ids = LongStream.range(0, IDS)
+				.map(i -> (i * 7919) % ROWS + 1)
+				.boxed()
+				.collect(Collectors.toList());
+		
+		double loopCold = millis(() -> ids.forEach(animeService::findByIdOrThrowBadRequestException), true);
+		double multiGetCold = millis(() -> animeService.findAllByIds(ids), true);
+		double loopWarm = millis(() -> ids.forEach(animeService::findByIdOrThrowBadRequestException), false);
+		double multiGetWarm = millis(() -> animeService.findAllByIds(ids), false);
+		
+		log.info("ids={} cold cache: loop {} ms, multi-get {} ms | warm cache: loop {} ms, multi-get {} ms", IDS,
+				loopCold, multiGetCold, loopWarm, multiGetWarm);
+		
+		AnimeMultiGetResponse response = animeService.findAllByIds(ids);
+		Assertions.assertThat(response.getContent()).extracting(Anime::getId).containsExactlyElementsOf(ids);
+		Assertions.assertThat(response.getMissing()).isEmpty();
+	}
+	
+	// Média em ms por execução; cold limpa o cache antes de cada execução (fora da medição)
+	private double millis(Runnable runnable, boolean cold) {
+		runnable.run(); // aquecimento
+		long total = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			if (cold) {
+				cacheManager.getCache(CacheConfig.ANIME_CACHE).clear();
+			}
+			long start = System.nanoTime();
+			runnable.run();
+			total += System.nanoTime() - start;
+		}
+		return Math.round(total / 1e4 / ITERATIONS) / 100.0;
+	}
+}
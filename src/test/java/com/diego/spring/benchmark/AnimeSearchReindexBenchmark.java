@@ -0,0 +1,82 @@
+package com.diego.spring.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.response.AnimeSearchResponse;
+import com.diego.spring.service.AnimeSearchService;
+import com.diego.spring.service.AnimeService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.log4j.Log4j2;
+
+// Executar com: mvn test -Pbenchmarks -Dtest=AnimeSearchReindexBenchmark [-Dbenchmark.items=500000]
+// Mede documentos/s da reconstrução do índice e a latência de busca; o banco fica de fora (AnimeService mockado).
+
+@Log4j2
+@DisplayName("Benchmark full-text search reindex")
+class AnimeSearchReindexBenchmark {
+	
+	private static final int ITEMS = Integer.getInteger("benchmark.items", 200_000);
+	private static final int QUERIES = 1_000;
+	private static final String[] WORDS = {"Naruto", "Piece", "Dragon", "Ball", "Attack", "Titan", "Hunter",
+			"Bleach", "Death", "Note", "Fullmetal", "Alchemist", "Sword", "Online", "Pokémon", "Shippuden"};
+	
+	@TempDir
+	Path indexPath;
+	
+	@Test
+	@DisplayName("reindex throughput and search latency")
+	void reindex_Throughput() throws IOException {
+		AnimeService animeServiceMock = Mockito.mock(AnimeService.class);
+		BDDMockito.doAnswer(invocation -> {
+			Consumer<Anime> consumer = invocation.getArgument(0);
+			for (int i = 0; i < ITEMS; i++) {
+				consumer.accept(Anime.builder().id((long) i).name(name(i)).build());
+			}
+			return null;
+		}).when(animeServiceMock).forEachAnime(ArgumentMatchers.any());
+		
+		AnimeSearchService animeSearchService = new AnimeSearchService(animeServiceMock, new SimpleMeterRegistry(),
+				indexPath.toString());
+		try {
+			long start = System.nanoTime();
+			long indexed = animeSearchService.rebuild();
+			double docsPerSecond = indexed / ((System.nanoTime() - start) / 1e9);
+			
+			start = System.nanoTime();
+			AnimeSearchResponse response = null;
+			for (int i = 0; i < QUERIES; i++) {
+				response = animeSearchService.search(typo(WORDS[i % WORDS.length]), 0, 20);
+			}
+			double microsPerQuery = (System.nanoTime() - start) / 1e3 / QUERIES;
+			
+			log.info("items={} reindex: {} docs/s, search: {} us/query", ITEMS, Math.round(docsPerSecond),
+					Math.round(microsPerQuery));
+			
+			Assertions.assertThat(indexed).isEqualTo(ITEMS);
+			Assertions.assertThat(response.getTotalHits()).isPositive();
+		} finally {
+			animeSearchService.close();
+		}
+	}
+	
+	// Remove a segunda letra, para exercitar a busca fuzzy
+	private static String typo(String word) {
+		return word.charAt(0) + word.substring(2);
+	}
+	
+	private static String name(int i) {
+		return WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + i;
+	}
+}
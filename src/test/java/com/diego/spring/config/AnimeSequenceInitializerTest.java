@@ -0,0 +1,85 @@
+package com.diego.spring.config;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.repository.AnimeRepository;
+
+@DataJpaTest
+@Import(AnimeSequenceInitializer.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // ALTER SEQUENCE faz commit implícito no H2
+@DisplayName("Tests for Anime Sequence Initializer")
+class AnimeSequenceInitializerTest {
+
+	// Linhas de quando o id era IDENTITY, acima de onde anime_seq começa
+	private static final long LEGACY_MAX_ID = 1000;
+
+	@Autowired
+	private AnimeSequenceInitializer animeSequenceInitializer;
+
+	@Autowired
+	private AnimeRepository animeRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		for (long id = LEGACY_MAX_ID - 2; id <= LEGACY_MAX_ID; id++) {
+			jdbcTemplate.update("INSERT INTO anime (id, name, version) VALUES (?, ?, 0)", id, "Legacy " + id);
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		animeRepository.deleteAllInBatch();
+	}
+
+	@Test
+	@DisplayName("saveAll generates ids after existing rows when sequence is advanced on a non-empty table")
+	void saveAll_GeneratesIdsAfterExistingRows_WhenTableIsNotEmpty() {
+		animeSequenceInitializer.afterSingletonsInstantiated();
+
+		List<Anime> saved = animeRepository.saveAll(animes(Anime.ID_ALLOCATION_SIZE * 2 + 1));
+
+		Assertions.assertThat(saved).extracting(Anime::getId).allMatch(id -> id > LEGACY_MAX_ID);
+		Assertions.assertThat(animeRepository.count()).isEqualTo(Anime.ID_ALLOCATION_SIZE * 2 + 4);
+	}
+
+	@Test
+	@DisplayName("afterSingletonsInstantiated does not move sequence back when it is already ahead of max id")
+	void afterSingletonsInstantiated_KeepsSequence_WhenItIsAlreadyAhead() {
+		animeSequenceInitializer.afterSingletonsInstantiated();
+		Long firstId = animeRepository.save(animes(1).get(0)).getId();
+
+		animeSequenceInitializer.afterSingletonsInstantiated();
+		List<Anime> saved = animeRepository.saveAll(animes(Anime.ID_ALLOCATION_SIZE + 1));
+
+		Assertions.assertThat(saved).extracting(Anime::getId).allMatch(id -> id > firstId);
+	}
+
+	private static List<Anime> animes(int count) {
+		return IntStream.range(0, count)
+				.mapToObj(i -> Anime.builder().name("Anime " + i).build())
+				.collect(Collectors.toList());
+	}
+}
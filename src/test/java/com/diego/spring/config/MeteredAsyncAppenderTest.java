@@ -0,0 +1,155 @@
+package com.diego.spring.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+@DisplayName("Tests for MeteredAsyncAppender")
+class MeteredAsyncAppenderTest {
+
+	private LoggerContext loggerContext;
+	private Logger logger;
+	private BlockingAppender delegate;
+	private MeteredAsyncAppender appender;
+
+	@BeforeEach
+	void setUp() {
+		loggerContext = new LoggerContext();
+		logger = loggerContext.getLogger("test");
+
+		delegate = new BlockingAppender();
+		delegate.setContext(loggerContext);
+		delegate.start();
+
+		appender = new MeteredAsyncAppender();
+		appender.setContext(loggerContext);
+		appender.setName("ASYNC");
+		appender.setQueueSize(2);
+		appender.setDiscardingThreshold(1);
+		appender.setNeverBlock(true);
+		appender.addAppender(delegate);
+	}
+
+	@AfterEach
+	void tearDown() {
+		delegate.release.countDown();
+		appender.stop();
+	}
+
+	@Test
+	@DisplayName("append counts discarded and rejected events when queue is full")
+	void append_CountsDroppedEvents_WhenQueueIsFull() throws InterruptedException {
+		appender.start();
+		fillQueue();
+
+		appender.doAppend(event("test", Level.INFO, "discarded"));
+		appender.doAppend(event("test", Level.WARN, "rejected"));
+
+		Assertions.assertThat(appender.getDiscardedCount()).isEqualTo(1);
+		Assertions.assertThat(appender.getRejectedCount()).isEqualTo(1);
+
+		delegate.release.countDown();
+		appender.stop();
+		Assertions.assertThat(delegate.messages).containsExactly("first", "queued 1", "queued 2");
+	}
+
+	@Test
+	@DisplayName("append counts rejected INFO events when queue is full and discarding threshold is zero")
+	void append_CountsRejectedInfoEvents_WhenDiscardingThresholdIsZero() throws InterruptedException {
+		appender.setDiscardingThreshold(0);
+		appender.start();
+		fillQueue();
+
+		appender.doAppend(event("test", Level.INFO, "rejected info"));
+		appender.doAppend(event("test", Level.DEBUG, "rejected debug"));
+
+		Assertions.assertThat(appender.getDiscardedCount()).isZero();
+		Assertions.assertThat(appender.getRejectedCount()).isEqualTo(2);
+
+		delegate.release.countDown();
+		appender.stop();
+		Assertions.assertThat(delegate.messages).containsExactly("first", "queued 1", "queued 2");
+	}
+
+	@Test
+	@DisplayName("append does not drop events when queue has room")
+	void append_DoesNotDropEvents_WhenQueueHasRoom() {
+		appender.start();
+		delegate.release.countDown();
+
+		appender.doAppend(event("test", Level.INFO, "first"));
+		appender.doAppend(event("test", Level.WARN, "second"));
+		appender.stop();
+
+		Assertions.assertThat(delegate.messages).containsExactly("first", "second");
+		Assertions.assertThat(appender.getDiscardedCount()).isZero();
+		Assertions.assertThat(appender.getRejectedCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("append keeps one in rate events of the sampled logger when sampling filter is attached")
+	void append_SamplesEvents_WhenSamplingFilterIsAttached() {
+		SamplingFilter filter = new SamplingFilter();
+		filter.setContext(loggerContext);
+		filter.setLoggerName("org.hibernate.SQL_SLOW");
+		filter.setRate(3);
+		filter.start();
+		appender.addFilter(filter);
+		appender.setQueueSize(16);
+		appender.start();
+		delegate.release.countDown();
+
+		for (int i = 0; i < 6; i++) {
+			appender.doAppend(event("org.hibernate.SQL_SLOW", Level.INFO, "slow " + i));
+		}
+		appender.doAppend(event("test", Level.INFO, "other"));
+		appender.stop();
+
+		Assertions.assertThat(delegate.messages).containsExactly("slow 0", "slow 3", "other");
+	}
+
+	// O primeiro evento prende a thread do appender, os dois seguintes ocupam a fila
+	private void fillQueue() throws InterruptedException {
+		appender.doAppend(event("test", Level.INFO, "first"));
+		Assertions.assertThat(delegate.blocked.await(5, TimeUnit.SECONDS)).isTrue();
+		appender.doAppend(event("test", Level.INFO, "queued 1"));
+		appender.doAppend(event("test", Level.INFO, "queued 2"));
+		Assertions.assertThat(appender.getRemainingCapacity()).isZero();
+	}
+
+	private LoggingEvent event(String loggerName, Level level, String message) {
+		return new LoggingEvent(Logger.class.getName(), loggerContext.getLogger(loggerName), level, message, null,
+				null);
+	}
+
+	private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+		private final CountDownLatch blocked = new CountDownLatch(1);
+		private final CountDownLatch release = new CountDownLatch(1);
+		private final List<String> messages = new CopyOnWriteArrayList<>();
+
+		@Override
+		protected void append(ILoggingEvent event) {
+			blocked.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			messages.add(event.getFormattedMessage());
+		}
+	}
+}
@@ -1,7 +1,13 @@
 package com.diego.spring.controller;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,19 +18,43 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
-import org.springframework.data.domain.Page;
+import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.diego.spring.domain.Anime;
+import com.diego.spring.repository.AnimeCatalogVersion;
+import com.diego.spring.request.AnimeBulkDeleteRequestBody;
+import com.diego.spring.request.AnimePatchRequestBody;
 import com.diego.spring.request.AnimePostRequestBody;
 import com.diego.spring.request.AnimePutRequestBody;
+import com.diego.spring.response.AnimeBulkDeleteResponse;
+import com.diego.spring.response.AnimeIngestStatus;
+import com.diego.spring.response.AnimeMultiGetResponse;
+import com.diego.spring.response.AnimeSearchHit;
+import com.diego.spring.response.AnimeSearchResponse;
+import com.diego.spring.response.AnimeSuggestion;
+import com.diego.spring.response.KeysetPageResponse;
+import com.diego.spring.response.PageResponse;
+import com.diego.spring.service.AnimeBatchService;
+import com.diego.spring.service.AnimeIngestService;
+import com.diego.spring.service.AnimeSearchService;
 import com.diego.spring.service.AnimeService;
+import com.diego.spring.service.AnimeSuggestService;
 import com.diego.spring.util.AnimeCreator;
 import com.diego.spring.util.AnimePostRequestBodyCreator;
 import com.diego.spring.util.AnimePutRequestBodyCreator;
+import com.diego.spring.util.ETagUtil;
+import com.diego.spring.util.KeysetCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @ExtendWith(SpringExtension.class) //teste unitário, junit com spring
 class AnimeControllerTest {
@@ -35,6 +65,21 @@ class AnimeControllerTest {
 	@Mock //Testar todas as classes que estão sendo utilizadas dentro do AnimeController
 	private AnimeService animeServiceMock;
 	
+	@Mock
+	private AnimeSuggestService animeSuggestServiceMock;
+	
+	@Mock
+	private AnimeSearchService animeSearchServiceMock;
+	
+	@Mock
+	private AnimeBatchService animeBatchServiceMock;
+	
+	@Mock
+	private AnimeIngestService animeIngestServiceMock;
+	
+	@Spy // Serialização real no streaming de /anime/all
+	private ObjectMapper objectMapper = new ObjectMapper();
+	
 	@BeforeEach //Faz antes de cada um dos testes
 	void setUp() {
 		//Definir os comportamentos
@@ -44,10 +89,26 @@ class AnimeControllerTest {
 		BDDMockito.when(animeServiceMock.listAll(ArgumentMatchers.any()))
 			.thenReturn(animePage);
 		
+		//Quando chamar findCatalogVersion(), retorne o agregado de uma tabela com um anime
+		BDDMockito.when(animeServiceMock.findCatalogVersion())
+			.thenReturn(new AnimeCatalogVersion() {
+				public long getTotal() { return 1; }
+				public long getMaxId() { return 1; }
+				public long getVersionSum() { return 0; }
+			});
+		
 		//Quando chamar listAllNonPageable()
 		BDDMockito.when(animeServiceMock.listAllNonPageable())
 			.thenReturn(List.of(AnimeCreator.createValidAnime()));
 		
+		// Quando chamar forEachAnime(), entrega dois animes ao consumer
+		BDDMockito.doAnswer(invocation -> {
+			Consumer<Anime> consumer = invocation.getArgument(0);
+			consumer.accept(AnimeCreator.createValidAnime());
+			consumer.accept(AnimeCreator.createAnimeUpdatedAnime());
+			return null;
+		}).when(animeServiceMock).forEachAnime(ArgumentMatchers.any());
+		
 		//Quando chamar findByIdOrThrowBadRequestException(), por qualquer valor
 		BDDMockito.when(animeServiceMock.findByIdOrThrowBadRequestException(ArgumentMatchers.anyLong()))
 				.thenReturn(AnimeCreator.createValidAnime());
@@ -71,11 +132,45 @@ class AnimeControllerTest {
 	@DisplayName("return list of animes inside page object when successful")
 	void list_ReturnsListOfInsidePageObject_WhenSuccessful() {
 		String expectedName = AnimeCreator.createValidAnime().getName();
-		Page<Anime> animePage = animeController.list(null).getBody();
+		PageResponse<Anime> animePage = animeController.list(null, null).getBody();
 		
 		Assertions.assertThat(animePage).isNotNull(); 
-		Assertions.assertThat(animePage.toList()).isNotEmpty().hasSize(1); 
-		Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
+		Assertions.assertThat(animePage.getContent()).isNotEmpty().hasSize(1); 
+		Assertions.assertThat(animePage.getContent().get(0).getName()).isEqualTo(expectedName);
+		Assertions.assertThat(animePage.getTotalElements()).isEqualTo(1);
+		Assertions.assertThat(animePage.getTotalPages()).isEqualTo(1);
+	}
+	
+	@Test
+	@DisplayName("list returns 304 without querying the page when ETag matches")
+	void list_ReturnsNotModified_WhenETagMatches() {
+		String etag = animeController.list(null, null).getHeaders().getETag();
+		
+		ResponseEntity<PageResponse<Anime>> response = animeController.list(null, etag);
+		
+		Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		Assertions.assertThat(response.getBody()).isNull();
+		BDDMockito.verify(animeServiceMock, Mockito.times(1)).listAll(ArgumentMatchers.any());
+	}
+	
+	@Test
+	@DisplayName("listKeyset returns slice of animes with next cursor when successful")
+	void listKeyset_ReturnsSliceWithNextCursor_WhenSuccessful() {
+		Anime anime = AnimeCreator.createValidAnime();
+		BDDMockito.when(animeServiceMock.listAllKeyset(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+			.thenReturn(new SliceImpl<>(List.of(anime), PageRequest.of(0, 1), true));
+		
+		KeysetPageResponse<Anime> animeSlice = animeController
+				.listKeyset(null, PageRequest.of(0, 1, Sort.by("name"))).getBody();
+		
+		Assertions.assertThat(animeSlice).isNotNull();
+		Assertions.assertThat(animeSlice.getContent()).containsExactly(anime);
+		Assertions.assertThat(animeSlice.isHasNext()).isTrue();
+		
+		KeysetCursor nextCursor = KeysetCursor.decode(animeSlice.getNextCursor());
+		Assertions.assertThat(nextCursor.getProperty()).isEqualTo("name");
+		Assertions.assertThat(nextCursor.getLastId()).isEqualTo(anime.getId());
+		Assertions.assertThat(nextCursor.getLastValue()).isEqualTo(anime.getName());
 	}
 	
 	@Test
@@ -92,17 +187,67 @@ class AnimeControllerTest {
 		Assertions.assertThat(listAnimes.get(0).getName()).isEqualTo(expectedName);
 	}
 	
+	@Test
+	@DisplayName("streamAll writes JSON array when successful")
+	void streamAll_WritesJsonArray_WhenSuccessful() throws IOException {
+		ResponseEntity<StreamingResponseBody> entity = animeController.streamAll(null);
+		
+		Assertions.assertThat(entity.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+		
+		Anime[] animes = objectMapper.readValue(write(entity.getBody()), Anime[].class);
+		Assertions.assertThat(animes)
+			.containsExactly(AnimeCreator.createValidAnime(), AnimeCreator.createAnimeUpdatedAnime());
+	}
+	
+	@Test
+	@DisplayName("streamAll writes one anime per line when accept is ndjson")
+	void streamAll_WritesNdjson_WhenAcceptIsNdjson() throws IOException {
+		ResponseEntity<StreamingResponseBody> entity = animeController.streamAll(MediaType.APPLICATION_NDJSON_VALUE);
+		
+		Assertions.assertThat(entity.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+		
+		String[] lines = write(entity.getBody()).split("\n");
+		Assertions.assertThat(lines).hasSize(2);
+		Assertions.assertThat(objectMapper.readValue(lines[1], Anime.class))
+			.isEqualTo(AnimeCreator.createAnimeUpdatedAnime());
+	}
+	
+	private static String write(StreamingResponseBody body) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		body.writeTo(outputStream);
+		return outputStream.toString(StandardCharsets.UTF_8);
+	}
+	
 	@Test
 	@DisplayName("findByID returns anime when successful")
 	void findById_ReturnsAnime_WhenSuccessful() {
 		Long expectedID = AnimeCreator.createValidAnime().getId();
-		Anime animeSaved = animeController.findByID(expectedID).getBody();
+		ResponseEntity<Anime> response = animeController.findByID(expectedID, null);
+		Anime animeSaved = response.getBody();
 		
 		Assertions.assertThat(animeSaved).isNotNull();
 
 		Assertions.assertThat(animeSaved.getId())
 			.isNotNull()
 			.isEqualTo(expectedID);
+		
+		Assertions.assertThat(response.getHeaders().getETag()).isEqualTo(ETagUtil.of(animeSaved));
+	}
+	
+	@Test
+	@DisplayName("findByID returns 304 without loading the anime when ETag matches")
+	void findById_ReturnsNotModified_WhenETagMatches() {
+		Anime anime = AnimeCreator.createValidAnime();
+		BDDMockito.when(animeServiceMock.findVersionByIdCacheFirst(anime.getId()))
+			.thenReturn(Optional.of(anime.getVersion()));
+		
+		ResponseEntity<Anime> response = animeController.findByID(anime.getId(), ETagUtil.of(anime));
+		
+		Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		Assertions.assertThat(response.getBody()).isNull();
+		BDDMockito.verify(animeServiceMock, Mockito.never()).findByIdOrThrowBadRequestException(ArgumentMatchers.anyLong());
+		// A versão vem do cache do findById quando houver, não de uma consulta à parte
+		BDDMockito.verify(animeServiceMock, Mockito.never()).findVersionById(ArgumentMatchers.anyLong());
 	}
 	
 	@Test
@@ -135,11 +280,63 @@ class AnimeControllerTest {
 			.isEmpty();
 	}
 	
+	@Test
+	@DisplayName("suggest returns list of suggestions when successful")
+	void suggest_ReturnsListOfSuggestions_WhenSuccessful() {
+		AnimeSuggestion suggestion = AnimeSuggestion.builder().id(1L).name("Anime").build();
+		BDDMockito.when(animeSuggestServiceMock.suggest(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+			.thenReturn(List.of(suggestion));
+		
+		List<AnimeSuggestion> suggestions = animeController.suggest("ani", 10).getBody();
+		
+		Assertions.assertThat(suggestions)
+			.isNotNull()
+			.containsExactly(suggestion);
+	}
+	
+	@Test
+	@DisplayName("findByIds returns animes and missing ids when successful")
+	void findByIds_ReturnsAnimesAndMissingIds_WhenSuccessful() {
+		Anime validAnime = AnimeCreator.createValidAnime();
+		BDDMockito.when(animeServiceMock.findAllByIds(List.of(validAnime.getId(), 99L)))
+			.thenReturn(AnimeMultiGetResponse.builder()
+					.content(List.of(validAnime))
+					.missing(List.of(99L))
+					.build());
+		
+		AnimeMultiGetResponse response = animeController.findByIds(List.of(validAnime.getId(), 99L)).getBody();
+		
+		Assertions.assertThat(response).isNotNull();
+		Assertions.assertThat(response.getContent()).containsExactly(validAnime);
+		Assertions.assertThat(response.getMissing()).containsExactly(99L);
+	}
+	
+	@Test
+	@DisplayName("search returns ranked hits when successful")
+	void search_ReturnsHits_WhenSuccessful() {
+		Anime validAnime = AnimeCreator.createValidAnime();
+		AnimeSearchResponse expected = AnimeSearchResponse.builder()
+				.query("anime")
+				.totalHits(1)
+				.page(0)
+				.size(20)
+				.hits(List.of(new AnimeSearchHit(validAnime.getId(), validAnime.getName(), 1.5f)))
+				.build();
+		BDDMockito.when(animeSearchServiceMock.search("anime", 0, 20)).thenReturn(expected);
+		
+		AnimeSearchResponse response = animeController.search("anime", 0, 20).getBody();
+		
+		Assertions.assertThat(response).isNotNull();
+		Assertions.assertThat(response.getHits())
+			.extracting(AnimeSearchHit::getId)
+			.containsExactly(validAnime.getId());
+	}
+	
 	@Test
 	@DisplayName("save returns anime when successful")
 	void save_ReturnsAnime_WhenSuccessful() {
-		Anime anime = animeController.save(AnimePostRequestBodyCreator
-				.createAnimePostRequestBody()).getBody();
+		Object anime = animeController.save(AnimePostRequestBodyCreator
+				.createAnimePostRequestBody(), null).getBody();
 		
 		Assertions.assertThat(anime)
 			.isNotNull()
@@ -147,19 +344,101 @@ class AnimeControllerTest {
 		
 	}
 	
+	@Test
+	@DisplayName("save returns 202 with tracking id when async ingest is enabled")
+	void save_ReturnsAcceptedWithTrackingId_WhenAsyncIngestIsEnabled() {
+		AnimeIngestStatus pending = AnimeIngestStatus.builder()
+				.trackingId("tracking-1")
+				.status(AnimeIngestStatus.Status.PENDING)
+				.build();
+		BDDMockito.when(animeIngestServiceMock.isEnabled()).thenReturn(true);
+		BDDMockito.when(animeIngestServiceMock.submit(ArgumentMatchers.any(AnimePostRequestBody.class)))
+				.thenReturn(pending);
+		
+		ResponseEntity<?> response = animeController.save(AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+				"respond-async");
+		
+		Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+		Assertions.assertThat(response.getHeaders().getLocation()).hasPath("/anime/ingest/tracking-1");
+		Assertions.assertThat(response.getBody()).isEqualTo(pending);
+		Mockito.verify(animeServiceMock, Mockito.never()).save(ArgumentMatchers.any());
+	}
+	
+	@Test
+	@DisplayName("save queues anime when respond-async is one of several Prefer tokens")
+	void save_ReturnsAccepted_WhenPreferHasRespondAsyncAmongOtherTokens() {
+		BDDMockito.when(animeIngestServiceMock.isEnabled()).thenReturn(true);
+		BDDMockito.when(animeIngestServiceMock.submit(ArgumentMatchers.any(AnimePostRequestBody.class)))
+				.thenReturn(AnimeIngestStatus.builder().trackingId("tracking-1").build());
+		
+		List<String> prefers = List.of("respond-async, wait=5", "return=minimal, Respond-Async",
+				"wait=5;x=1,respond-async");
+		for (String prefer : prefers) {
+			ResponseEntity<?> response = animeController.save(AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+					prefer);
+			
+			Assertions.assertThat(response.getStatusCode()).as(prefer).isEqualTo(HttpStatus.ACCEPTED);
+		}
+		Mockito.verify(animeServiceMock, Mockito.never()).save(ArgumentMatchers.any());
+	}
+	
+	@Test
+	@DisplayName("save writes synchronously when Prefer has no respond-async token")
+	void save_ReturnsCreated_WhenPreferHasNoRespondAsync() {
+		BDDMockito.when(animeIngestServiceMock.isEnabled()).thenReturn(true);
+		
+		ResponseEntity<?> response = animeController.save(AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+				"return=minimal, respond-async-later");
+		
+		Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		Mockito.verify(animeIngestServiceMock, Mockito.never()).submit(ArgumentMatchers.any());
+	}
+	
+	@Test
+	@DisplayName("save saves synchronously when async ingest is disabled")
+	void save_SavesSynchronously_WhenAsyncIngestIsDisabled() {
+		ResponseEntity<?> response = animeController.save(AnimePostRequestBodyCreator.createAnimePostRequestBody(),
+				"respond-async");
+		
+		Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+		Assertions.assertThat(response.getBody()).isEqualTo(AnimeCreator.createValidAnime());
+		Mockito.verify(animeIngestServiceMock, Mockito.never()).submit(ArgumentMatchers.any());
+	}
+	
 	@Test
 	@DisplayName("replace update Anime when successful")
 	void replace_UpdateAnime_WhenSuccessful() {
 		
-		Assertions.assertThatCode(() -> animeController.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()))
+		Assertions.assertThatCode(() -> animeController.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), null))
 			.doesNotThrowAnyException();
 		
-		ResponseEntity<Void> entity = animeController.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody());
+		ResponseEntity<Void> entity = animeController.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody(), null);
 		
 		Assertions.assertThat(entity).isNotNull();
 		Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
 	}
 	
+	@Test
+	@DisplayName("replace sends the If-Match version to the service")
+	void replace_UsesIfMatchVersion_WhenHeaderIsPresent() {
+		AnimePutRequestBody animePutRequestBody = AnimePutRequestBodyCreator.createAnimePutRequestBody();
+		
+		animeController.replace(animePutRequestBody, ETagUtil.of(animePutRequestBody.getId(), 3));
+		
+		BDDMockito.verify(animeServiceMock).replace(ArgumentMatchers.argThat(body -> body.getVersion() == 3L));
+	}
+	
+	@Test
+	@DisplayName("patch update Anime when successful")
+	void patch_UpdateAnime_WhenSuccessful() {
+		AnimePatchRequestBody animePatchRequestBody = AnimePatchRequestBody.builder().name("Overlord").build();
+		
+		ResponseEntity<Void> entity = animeController.patch(1L, animePatchRequestBody, null);
+		
+		Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+		BDDMockito.verify(animeServiceMock).patch(1L, animePatchRequestBody);
+	}
+	
 	@Test
 	@DisplayName("delete remove Anime when successful")
 	void delete_RemoveAnime_WhenSuccessful() {
@@ -173,4 +452,23 @@ class AnimeControllerTest {
 		
 		Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
 	}
+	
+	@Test
+	@DisplayName("deleteAll returns bulk delete summary when successful")
+	void deleteAll_ReturnsSummary_WhenSuccessful() {
+		AnimeBulkDeleteRequestBody animeBulkDeleteRequestBody = AnimeBulkDeleteRequestBody.builder()
+				.ids(Set.of(1L, 2L))
+				.build();
+		AnimeBulkDeleteResponse expected = AnimeBulkDeleteResponse.builder()
+				.deleted(1)
+				.chunks(1)
+				.notFound(List.of(2L))
+				.build();
+		BDDMockito.when(animeBatchServiceMock.delete(animeBulkDeleteRequestBody)).thenReturn(expected);
+		
+		ResponseEntity<AnimeBulkDeleteResponse> entity = animeController.deleteAll(animeBulkDeleteRequestBody);
+		
+		Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(entity.getBody()).isEqualTo(expected);
+	}
 }
@@ -0,0 +1,46 @@
+package com.diego.spring.domain;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+@DisplayName("Tests for Custom User")
+class CustomUserTest {
+
+	@Test
+	@DisplayName("getAuthorities returns the parsed authorities ignoring blanks")
+	void getAuthorities_ReturnsParsedAuthorities_WhenColumnHasBlanks() {
+		CustomUser customUser = CustomUser.builder().authorities(" ROLE_USER, ROLE_ADMIN,,").build();
+		
+		Assertions.assertThat(customUser.getAuthorities())
+			.extracting(GrantedAuthority::getAuthority)
+			.containsExactly("ROLE_USER", "ROLE_ADMIN");
+	}
+	
+	@Test
+	@DisplayName("getAuthorities returns the same immutable set for users with the same authorities")
+	void getAuthorities_ReturnsSharedSet_WhenAuthoritiesAreEqual() {
+		CustomUser first = CustomUser.builder().username("joao").authorities("ROLE_USER").build();
+		CustomUser second = CustomUser.builder().username("maria").authorities(new String("ROLE_USER")).build();
+		
+		Assertions.assertThat(first.getAuthorities()).isSameAs(second.getAuthorities());
+		Assertions.assertThatExceptionOfType(UnsupportedOperationException.class)
+			.isThrownBy(() -> first.getAuthorities().clear());
+	}
+	
+	@Test
+	@DisplayName("getAuthorities returns empty when authorities are null")
+	void getAuthorities_ReturnsEmpty_WhenAuthoritiesAreNull() {
+		Assertions.assertThat(CustomUser.builder().build().getAuthorities()).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("hasAuthority returns true only for granted authorities")
+	void hasAuthority_ReturnsTrue_WhenAuthorityIsGranted() {
+		CustomUser customUser = CustomUser.builder().authorities("ROLE_USER,ROLE_ADMIN").build();
+		
+		Assertions.assertThat(customUser.hasAuthority("ROLE_ADMIN")).isTrue();
+		Assertions.assertThat(customUser.hasAuthority("ROLE_OWNER")).isFalse();
+	}
+}
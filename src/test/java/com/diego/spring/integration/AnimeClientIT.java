@@ -0,0 +1,144 @@
+package com.diego.spring.integration;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.diego.spring.client.AnimeClient;
+import com.diego.spring.domain.Anime;
+import com.diego.spring.domain.CustomUser;
+import com.diego.spring.repository.AnimeRepository;
+import com.diego.spring.request.AnimePatchRequestBody;
+import com.diego.spring.request.AnimePutRequestBody;
+import com.diego.spring.response.PageResponse;
+import com.diego.spring.security.TokenService;
+import com.diego.spring.util.AnimeCreator;
+import com.diego.spring.util.AnimePostRequestBodyCreator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureTestDatabase
+@DisplayName("Tests for Anime Client")
+class AnimeClientIT {
+	
+	@LocalServerPort
+	private int port;
+	
+	@Autowired
+	private AnimeRepository animeRepository;
+	
+	@Autowired
+	private TokenService tokenService;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	private AnimeClient userClient;
+	private AnimeClient adminClient;
+	
+	@BeforeEach
+	void setUp() {
+		animeRepository.deleteAll();
+		// O token é validado sem consultar o banco, não é necessário salvar os usuários
+		userClient = AnimeClient.builder()
+				.baseUrl("http://localhost:" + port)
+				.token(tokenService.issue(CustomUser.builder().username("joao").authorities("ROLE_USER").build())
+						.getToken())
+				.maxConcurrency(4)
+				.build();
+		adminClient = AnimeClient.builder()
+				.baseUrl("http://localhost:" + port)
+				.token(tokenService.issue(CustomUser.builder().username("diego").authorities("ROLE_USER,ROLE_ADMIN")
+						.build()).getToken())
+				.cacheSize(0L)
+				.build();
+	}
+	
+	@AfterEach
+	void tearDown() throws IOException {
+		userClient.close();
+		adminClient.close();
+	}
+	
+	@Test
+	@DisplayName("findById revalidates with ETag and reuses the local copy when server answers 304")
+	void findById_ReturnsCachedCopy_WhenNotModified() {
+		Anime animeSaved = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		
+		Anime first = userClient.findById(animeSaved.getId());
+		long notModified = notModifiedCount();
+		first.setName("changed by the caller");
+		Anime second = userClient.findById(animeSaved.getId());
+		
+		Assertions.assertThat(second).isEqualTo(animeSaved);
+		Assertions.assertThat(notModifiedCount()).isEqualTo(notModified + 1);
+	}
+	
+	@Test
+	@DisplayName("findById returns new version after patch when successful")
+	void findById_ReturnsNewVersion_AfterPatch() {
+		Anime animeSaved = userClient.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
+		userClient.findById(animeSaved.getId());
+		
+		userClient.patch(animeSaved.getId(), AnimePatchRequestBody.builder().name("Patched").build());
+		Anime patched = userClient.findById(animeSaved.getId());
+		
+		Assertions.assertThat(patched.getName()).isEqualTo("Patched");
+		Assertions.assertThat(patched.getVersion()).isEqualTo(animeSaved.getVersion() + 1);
+	}
+	
+	@Test
+	@DisplayName("replace throws 409 when version is stale and delete removes anime")
+	void replace_Throws409_WhenVersionIsStale() {
+		Anime animeSaved = userClient.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
+		AnimePutRequestBody stale = AnimePutRequestBody.builder()
+				.id(animeSaved.getId())
+				.name("Stale")
+				.version(animeSaved.getVersion() + 1)
+				.build();
+		
+		Assertions.assertThatThrownBy(() -> userClient.replace(stale))
+			.isInstanceOf(HttpClientErrorException.Conflict.class);
+		Assertions.assertThatThrownBy(() -> userClient.delete(animeSaved.getId()))
+			.isInstanceOf(HttpClientErrorException.Forbidden.class);
+		
+		adminClient.delete(animeSaved.getId());
+		
+		Assertions.assertThat(animeRepository.findById(animeSaved.getId())).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("findByIdsAsync returns animes in request order and list returns page")
+	void findByIdsAsync_ReturnsAnimesInOrder_WhenSuccessful() {
+		Anime first = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		Anime second = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		
+		List<Anime> animes = userClient.findByIdsAsync(List.of(second.getId(), first.getId(), second.getId())).join();
+		PageResponse<Anime> page = userClient.list(0, 1);
+		
+		Assertions.assertThat(animes).extracting(Anime::getId)
+			.containsExactly(second.getId(), first.getId(), second.getId());
+		Assertions.assertThat(page.getContent()).hasSize(1);
+		Assertions.assertThat(page.getTotalElements()).isEqualTo(2);
+		Assertions.assertThat(userClient.findByName(first.getName())).hasSize(2);
+	}
+	
+	// Contexto compartilhado entre os testes, o contador acumula
+	private long notModifiedCount() {
+		return meterRegistry.find("http.server.requests").tag("uri", "/anime/{id}").tag("status", "304").timers()
+				.stream()
+				.mapToLong(timer -> timer.count())
+				.sum();
+	}
+}
@@ -1,6 +1,8 @@
 package com.diego.spring.integration;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -17,6 +19,7 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,10 +29,17 @@ import com.diego.spring.domain.Anime;
 import com.diego.spring.domain.CustomUser;
 import com.diego.spring.repository.AnimeRepository;
 import com.diego.spring.repository.CustomUserRepository;
+import com.diego.spring.request.AnimeBulkDeleteRequestBody;
 import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.request.LoginRequestBody;
+import com.diego.spring.response.AnimeBatchResponse;
+import com.diego.spring.response.AnimeBulkDeleteResponse;
+import com.diego.spring.response.AnimeMultiGetResponse;
+import com.diego.spring.response.PageResponse;
+import com.diego.spring.response.TokenResponse;
 import com.diego.spring.util.AnimeCreator;
 import com.diego.spring.util.AnimePostRequestBodyCreator;
-import com.diego.spring.wrapper.PageableResponse;
+import com.diego.spring.util.ETagUtil;
 
 //Troca porta para evitar conflito com servidor rodando
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -99,11 +109,16 @@ class AnimeControllerIT {
 		// cria um usuário válido para autenticar (spring security) e poder acessar o método
 		customUserRepository.save(USER);
 		
-		PageableResponse<Anime> animePage = testRestTemplateRoleUser.exchange("/anime", HttpMethod.GET, null,
-				new ParameterizedTypeReference<PageableResponse<Anime>>() {
+		// Sem parâmetros vale o fallback do AnimeWebMvcConfigurer (page=1, size=5)
+		PageResponse<Anime> animePage = testRestTemplateRoleUser.exchange("/anime?page=0&size=10", HttpMethod.GET, null,
+				new ParameterizedTypeReference<PageResponse<Anime>>() {
 				}).getBody();
 		
 		Assertions.assertThat(animePage).isNotNull();
+		Assertions.assertThat(animePage.getContent()).extracting(Anime::getId).containsExactly(animeSaved.getId());
+		Assertions.assertThat(animePage.getTotalElements()).isEqualTo(1);
+		Assertions.assertThat(animePage.getSize()).isEqualTo(10);
+		Assertions.assertThat(animePage.getTotalPages()).isEqualTo(1);
 	}
 	
 	@Test
@@ -127,6 +142,52 @@ class AnimeControllerIT {
 		Assertions.assertThat(listAnimes.get(0).getName()).isEqualTo(expectedName);
 	}
 	
+	@Test
+	@DisplayName("streamAll returns list of animes when successful")
+	void streamAll_ReturnsListOfAnime_WhenSuccessful() {
+		Anime animeSaved = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		
+		customUserRepository.save(USER);
+		
+		List<Anime> listAnimes = testRestTemplateRoleUser.exchange("/anime/all?stream=true", HttpMethod.GET, null,
+				new ParameterizedTypeReference<List<Anime>>() {
+				}).getBody();
+		
+		Assertions.assertThat(listAnimes)
+			.isNotNull()
+			.hasSize(1);
+		
+		Assertions.assertThat(listAnimes.get(0).getId()).isEqualTo(animeSaved.getId());
+	}
+	
+	@Test
+	@DisplayName("findByID returns 304 when ETag is unchanged and 200 after update")
+	void findById_ReturnsNotModified_WhenETagIsUnchanged() {
+		Anime animeSaved = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		customUserRepository.save(USER);
+		
+		ResponseEntity<Anime> first = testRestTemplateRoleUser.getForEntity("/anime/{id}", Anime.class, animeSaved.getId());
+		String etag = first.getHeaders().getETag();
+		Assertions.assertThat(etag).isNotNull();
+		
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfNoneMatch(etag);
+		ResponseEntity<Anime> notModified = testRestTemplateRoleUser.exchange("/anime/{id}", HttpMethod.GET,
+				new HttpEntity<>(headers), Anime.class, animeSaved.getId());
+		Assertions.assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		Assertions.assertThat(notModified.getBody()).isNull();
+		
+		Anime animeUpdated = first.getBody();
+		animeUpdated.setName("Updated");
+		testRestTemplateRoleUser.put("/anime", animeUpdated);
+		
+		ResponseEntity<Anime> modified = testRestTemplateRoleUser.exchange("/anime/{id}", HttpMethod.GET,
+				new HttpEntity<>(headers), Anime.class, animeSaved.getId());
+		Assertions.assertThat(modified.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(modified.getBody().getName()).isEqualTo("Updated");
+		Assertions.assertThat(modified.getHeaders().getETag()).isNotEqualTo(etag);
+	}
+	
 	@Test
 	@DisplayName("findByID returns anime when successful")
 	void findById_ReturnsAnime_WhenSuccessful() {
@@ -145,6 +206,49 @@ class AnimeControllerIT {
 			.isEqualTo(expectedID);
 	}
 	
+	@Test
+	@DisplayName("findByID returns anime when authenticated with token")
+	void findById_ReturnsAnime_WhenAuthenticatedWithToken() {
+		Anime animeSaved = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		
+		customUserRepository.save(USER);
+		
+		// Login sem autenticação básica, a senha é verificada apenas aqui
+		LoginRequestBody login = LoginRequestBody.builder().username("joao").password("123456789").build();
+		TokenResponse tokenResponse = new TestRestTemplate(new RestTemplateBuilder()
+				.rootUri(testRestTemplateRoleUser.getRootUri()))
+			.postForObject("/auth/login", login, TokenResponse.class);
+		
+		Assertions.assertThat(tokenResponse).isNotNull();
+		Assertions.assertThat(tokenResponse.getToken()).isNotBlank();
+		
+		HttpHeaders headers = new HttpHeaders();
+		headers.setBearerAuth(tokenResponse.getToken());
+		ResponseEntity<Anime> animeResponseEntity = new TestRestTemplate(new RestTemplateBuilder()
+				.rootUri(testRestTemplateRoleUser.getRootUri()))
+			.exchange("/anime/{id}", HttpMethod.GET, new HttpEntity<>(headers), Anime.class, animeSaved.getId());
+		
+		Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(animeResponseEntity.getBody().getId()).isEqualTo(animeSaved.getId());
+	}
+	
+	@Test
+	@DisplayName("findByIds returns animes in request order and missing ids")
+	void findByIds_ReturnsAnimesInOrder_WhenSuccessful() {
+		Anime first = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		Anime second = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		customUserRepository.save(USER);
+		
+		AnimeMultiGetResponse response = testRestTemplateRoleUser.getForObject("/anime/by-ids?ids={ids}",
+				AnimeMultiGetResponse.class, second.getId() + ",-1," + first.getId());
+		
+		Assertions.assertThat(response).isNotNull();
+		Assertions.assertThat(response.getContent())
+			.extracting(Anime::getId)
+			.containsExactly(second.getId(), first.getId());
+		Assertions.assertThat(response.getMissing()).containsExactly(-1L);
+	}
+	
 	@Test
 	@DisplayName("findByName returns list of animes when successful")
 	void findByName_ReturnsListOfAnime_WhenSuccessful() {
@@ -200,6 +304,22 @@ class AnimeControllerIT {
 		
 	}
 	
+	@Test
+	@DisplayName("saveBatch returns result per item when successful")
+	void saveBatch_ReturnsResultPerItem_WhenSuccessful() {
+		customUserRepository.save(USER);
+		
+		List<AnimePostRequestBody> animePostRequestBodies = List.of(
+				AnimePostRequestBodyCreator.createAnimePostRequestBody(), new AnimePostRequestBody(""));
+		ResponseEntity<AnimeBatchResponse> responseEntity = testRestTemplateRoleUser.postForEntity("/anime/batch",
+				animePostRequestBodies, AnimeBatchResponse.class);
+		
+		Assertions.assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(responseEntity.getBody().getCreated()).isEqualTo(1);
+		Assertions.assertThat(responseEntity.getBody().getFailed()).isEqualTo(1);
+		Assertions.assertThat(animeRepository.findById(responseEntity.getBody().getItems().get(0).getId())).isPresent();
+	}
+	
 	@Test
 	@DisplayName("replace update Anime when successful")
 	void replace_UpdateAnime_WhenSuccessful() {
@@ -218,6 +338,64 @@ class AnimeControllerIT {
 		Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
 	}
 	
+	@Test
+	@DisplayName("replace returns 409 when version is stale")
+	void replace_Returns409_WhenVersionIsStale() {
+		Anime animeSaved = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		customUserRepository.save(USER);
+		
+		animeSaved.setName("first");
+		ResponseEntity<Void> first = testRestTemplateRoleUser.exchange("/anime", HttpMethod.PUT,
+				new HttpEntity<>(animeSaved), Void.class);
+		// Mesma versão lida antes do primeiro PUT
+		animeSaved.setName("second");
+		ResponseEntity<Void> second = testRestTemplateRoleUser.exchange("/anime", HttpMethod.PUT,
+				new HttpEntity<>(animeSaved), Void.class);
+		
+		Assertions.assertThat(first.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+		Assertions.assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		Anime animeFound = animeRepository.findById(animeSaved.getId()).orElseThrow();
+		Assertions.assertThat(animeFound.getName()).isEqualTo("first");
+		Assertions.assertThat(animeFound.getVersion()).isEqualTo(animeSaved.getVersion() + 1);
+	}
+	
+	@Test
+	@DisplayName("replace returns 409 when If-Match is stale")
+	void replace_Returns409_WhenIfMatchIsStale() {
+		Anime animeSaved = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		customUserRepository.save(USER);
+		
+		HttpHeaders headers = new HttpHeaders();
+		headers.setIfMatch(ETagUtil.of(animeSaved.getId(), animeSaved.getVersion() + 1));
+		animeSaved.setName("stale");
+		ResponseEntity<Void> animeResponseEntity = testRestTemplateRoleUser.exchange("/anime", HttpMethod.PUT,
+				new HttpEntity<>(animeSaved, headers), Void.class);
+		
+		Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+		Assertions.assertThat(animeRepository.findById(animeSaved.getId()).orElseThrow().getName())
+			.isEqualTo(AnimeCreator.createAnimeToBeSaved().getName());
+	}
+	
+	@Test
+	@DisplayName("deleteAll removes animes by ids and reports missing ids")
+	void deleteAll_RemoveAnimes_WhenSuccessful() {
+		Anime first = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		Anime second = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		customUserRepository.save(ADMIN);
+		
+		AnimeBulkDeleteRequestBody animeBulkDeleteRequestBody = AnimeBulkDeleteRequestBody.builder()
+				.ids(Set.of(first.getId(), second.getId(), -1L))
+				.build();
+		ResponseEntity<AnimeBulkDeleteResponse> responseEntity = testRestTemplateRoleAdmin.exchange("/anime/admin",
+				HttpMethod.DELETE, new HttpEntity<>(animeBulkDeleteRequestBody), AnimeBulkDeleteResponse.class);
+		
+		Assertions.assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(responseEntity.getBody()).isNotNull();
+		Assertions.assertThat(responseEntity.getBody().getDeleted()).isEqualTo(2);
+		Assertions.assertThat(responseEntity.getBody().getNotFound()).containsExactly(-1L);
+		Assertions.assertThat(animeRepository.count()).isZero();
+	}
+	
 	@Test
 	@DisplayName("delete remove Anime when successful")
 	void delete_RemoveAnime_WhenSuccessful() {
@@ -254,4 +432,93 @@ class AnimeControllerIT {
 		// Retorna para forbidden
 		Assertions.assertThat(animeResponseEntity.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
 	}
+	
+	@Test
+	@DisplayName("instrumentation exports method timers and hibernate statistics when enabled by admin")
+	void instrumentation_ExportsMethodTimers_WhenEnabledByAdmin() {
+		Anime animeSaved = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		
+		// USER e ADMIN guardam o id gerado em outros testes, sem limpar o save de um sobrescreveria o outro
+		USER.setId(null);
+		ADMIN.setId(null);
+		customUserRepository.save(USER);
+		customUserRepository.save(ADMIN);
+		
+		ResponseEntity<Void> forbidden = testRestTemplateRoleUser.getForEntity("/actuator/instrumentation", Void.class);
+		ResponseEntity<Map<String, Boolean>> enabled = testRestTemplateRoleAdmin.exchange("/actuator/instrumentation",
+				HttpMethod.POST, new HttpEntity<>(Map.of("methods", true, "hibernateStatistics", true)),
+				new ParameterizedTypeReference<Map<String, Boolean>>() {
+				});
+		testRestTemplateRoleUser.getForEntity("/anime/{id}", Anime.class, animeSaved.getId());
+		// Testes usam o SimpleMeterRegistry (sem /actuator/prometheus), os medidores são lidos em /actuator/metrics
+		ResponseEntity<String> serviceTimer = testRestTemplateRoleUser.getForEntity("/actuator/metrics/anime.method"
+				+ "?tag=class:AnimeService&tag=method:findByIdOrThrowBadRequestException&tag=exception:none", String.class);
+		ResponseEntity<String> repositoryTimer = testRestTemplateRoleUser.getForEntity("/actuator/metrics/anime.method"
+				+ "?tag=class:AnimeRepository", String.class);
+		ResponseEntity<String> hibernateStatements = testRestTemplateRoleUser.getForEntity(
+				"/actuator/metrics/hibernate.statements", String.class);
+		
+		testRestTemplateRoleAdmin.postForEntity("/actuator/instrumentation",
+				Map.of("methods", false, "hibernateStatistics", false), Void.class);
+		
+		Assertions.assertThat(forbidden.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+		Assertions.assertThat(enabled.getBody()).containsEntry("methods", true).containsEntry("hibernateStatistics", true);
+		Assertions.assertThat(serviceTimer.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(serviceTimer.getBody()).contains("{\"statistic\":\"COUNT\",\"value\":1.0}");
+		Assertions.assertThat(repositoryTimer.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(hibernateStatements.getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+	
+	@Test
+	@DisplayName("listAll returns 429 with Retry-After when user exhausts its rate limit bucket")
+	void listAll_Returns429_WhenRateLimitIsExceeded() {
+		animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		
+		customUserRepository.save(USER);
+		
+		// /anime/all custa o bucket inteiro (anime.rate-limit.costs), a segunda chamada em seguida é rejeitada
+		ResponseEntity<String> first = testRestTemplateRoleUser.getForEntity("/anime/all", String.class);
+		ResponseEntity<String> second = testRestTemplateRoleUser.getForEntity("/anime/all", String.class);
+		ResponseEntity<String> rejected = testRestTemplateRoleUser.getForEntity("/actuator/metrics/anime.rate-limit.requests"
+				+ "?tag=endpoint:/anime/all&tag=result:rejected", String.class);
+		
+		Assertions.assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+		Assertions.assertThat(second.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		Assertions.assertThat(second.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+		Assertions.assertThat(second.getBody()).contains("Rate limit exceeded for /anime/all");
+		Assertions.assertThat(rejected.getBody()).contains("{\"statistic\":\"COUNT\",\"value\":1.0}");
+	}
+	
+	@Test
+	@DisplayName("findById returns 429 before checking the password when an IP keeps failing Basic authentication")
+	void findById_Returns429_WhenBasicAuthenticationKeepsFailing() {
+		customUserRepository.save(USER);
+		TestRestTemplate wrongPassword = testRestTemplateRoleUser.withBasicAuth("joao", "wrong-password");
+		
+		// anime.rate-limit.authentication.capacity falhas por IP (401 ou redirect para o login), depois 429 sem consultar
+		// usuário e senha
+		ResponseEntity<String> response = wrongPassword.getForEntity("/anime/1", String.class);
+		for (int i = 0; i < 20 && response.getStatusCode() != HttpStatus.TOO_MANY_REQUESTS; i++) {
+			response = wrongPassword.getForEntity("/anime/1", String.class);
+		}
+		ResponseEntity<String> rightPassword = testRestTemplateRoleUser.getForEntity("/anime/1", String.class);
+		
+		Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		Assertions.assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotNull();
+		Assertions.assertThat(response.getBody()).contains("Rate limit exceeded for authentication attempts");
+		// O bucket é do IP: quem acerta a senha também espera
+		Assertions.assertThat(rightPassword.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+	}
+	
+	@Test
+	@DisplayName("findById is not limited by authentication attempts when Basic authentication succeeds")
+	void findById_IsNotLimitedByAuthenticationAttempts_WhenBasicAuthenticationSucceeds() {
+		Anime animeSaved = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		customUserRepository.save(USER);
+		
+		for (int i = 0; i < 20; i++) {
+			Assertions.assertThat(testRestTemplateRoleUser.getForEntity("/anime/" + animeSaved.getId(), String.class)
+					.getStatusCode()).isEqualTo(HttpStatus.OK);
+		}
+	}
 }
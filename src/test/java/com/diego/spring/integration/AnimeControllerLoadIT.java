@@ -0,0 +1,179 @@
+package com.diego.spring.integration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.diego.spring.domain.CustomUser;
+import com.diego.spring.repository.CustomUserRepository;
+import com.diego.spring.response.TokenResponse;
+import com.diego.spring.service.AnimeSuggestService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.log4j.Log4j2;
+
+// Executar com: mvn test -Pload-tests [-Dload.rows=1000000 -Dload.threads=16 -Dload.duration=PT2M]
+// Servidor embarcado com H2. -Dload.mix=core restringe a carga aos endpoints que a pilha reativa também tem,
+// para comparar com ReactiveAnimeControllerLoadIT; o resultado vai para target/load-test/servlet-<mix>.json.
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"spring.jpa.show-sql=false",
+		"logging.level.org.hibernate.SQL=WARN",
+		"anime.security.token.ttl=12h",
+		"anime.rate-limit.enabled=false" // mede a aplicação, não o limite por usuário
+})
+@AutoConfigureTestDatabase
+@Log4j2
+@DisplayName("Load test for Anime Controller")
+class AnimeControllerLoadIT extends AnimeLoadTestSupport {
+
+	private static final String MIX = System.getProperty("load.mix", "full");
+	private static final int SEED_CHUNK = 10_000;
+	private static final String PASSWORD = "123456789";
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private CustomUserRepository customUserRepository;
+
+	@Autowired
+	private AnimeSuggestService animeSuggestService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	@DisplayName("mixed workload throughput and latency do not regress against baseline")
+	void mixedWorkload_DoesNotRegress_WhenComparedToBaseline() throws Exception {
+		seed();
+		userToken = login("joao");
+		adminToken = login("diego");
+
+		Map<String, Object> extra = new LinkedHashMap<>();
+		extra.put("mix", MIX);
+		if ("full".equals(MIX)) {
+			extra.put("oneShot", runOneShotOperations());
+		}
+		runAndCompare("servlet-" + MIX, "core".equals(MIX) ? coreOperations() : operations(), extra);
+	}
+
+	@Override
+	protected int port() {
+		return port;
+	}
+
+	@Override
+	protected ObjectMapper objectMapper() {
+		return objectMapper;
+	}
+
+	// Inserts em lote direto no banco, depois a sequence é movida para depois dos ids usados
+	private void seed() {
+		long start = System.nanoTime();
+		for (int first = 0; first < ROWS; first += SEED_CHUNK) {
+			jdbcTemplate.batchUpdate("insert into anime (id, name, version) values (?, ?, 0)",
+					IntStream.range(first, Math.min(first + SEED_CHUNK, ROWS))
+						.mapToObj(i -> new Object[] { i + 1L, name(i + 1L) })
+						.collect(Collectors.toList()));
+		}
+		jdbcTemplate.execute("alter sequence anime_seq restart with " + (ROWS + 1000));
+
+		customUserRepository.save(CustomUser.builder()
+				.name("joao")
+				.username("joao")
+				.password("{bcrypt}$2a$10$f15GanrhWH/NeeTejjHBueS92WwJ/LuOKPFmZ9dvhxQTx4FQJ/uFu")
+				.authorities("ROLE_USER")
+				.build());
+		customUserRepository.save(CustomUser.builder()
+				.name("diego")
+				.username("diego")
+				.password("{bcrypt}$2a$10$f15GanrhWH/NeeTejjHBueS92WwJ/LuOKPFmZ9dvhxQTx4FQJ/uFu")
+				.authorities("ROLE_USER,ROLE_ADMIN")
+				.build());
+		log.info("Seeded {} animes in {} ms", ROWS, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	// Endpoints que percorrem a tabela inteira: uma execução cada, fora da carga mista
+	private Map<String, Long> runOneShotOperations() throws IOException, InterruptedException {
+		Map<String, Long> millis = new LinkedHashMap<>();
+
+		long start = System.nanoTime();
+		animeSuggestService.rebuild();
+		millis.put("suggestRebuild", (System.nanoTime() - start) / 1_000_000);
+
+		start = System.nanoTime();
+		HttpResponse<Void> reindex = send(request(adminToken, "/anime/admin/search/reindex")
+				.POST(HttpRequest.BodyPublishers.noBody())
+				.build(), HttpResponse.BodyHandlers.discarding());
+		millis.put("searchReindex", (System.nanoTime() - start) / 1_000_000);
+		Assertions.assertThat(reindex.statusCode()).isEqualTo(200);
+
+		start = System.nanoTime();
+		HttpResponse<Void> stream = send(request(userToken, "/anime/all?stream=true")
+				.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_NDJSON_VALUE)
+				.build(), HttpResponse.BodyHandlers.discarding());
+		millis.put("streamAll", (System.nanoTime() - start) / 1_000_000);
+		Assertions.assertThat(stream.statusCode()).isEqualTo(200);
+
+		return millis;
+	}
+
+	// Mistura aproximada do tráfego: a carga comum acrescida dos endpoints exclusivos da pilha servlet
+	private List<Operation> operations() {
+		List<Operation> operations = new ArrayList<>(coreOperations());
+		operations.add(new Operation("listKeyset", 10, (test, state) -> test.request(userToken,
+				"/anime?mode=keyset&size=20&sort=name").build()));
+		operations.add(new Operation("findByIds", 5, (test, state) -> test.request(userToken, "/anime/by-ids?ids="
+				+ LongStream.range(0, 20).mapToObj(i -> String.valueOf(randomId())).collect(Collectors.joining(",")))
+				.build()));
+		operations.add(new Operation("suggest", 8, (test, state) -> test.request(userToken,
+				"/anime/suggest?limit=10&prefix=Anime%20" + String.format("%05d", random(ROWS / 100 + 1))).build()));
+		operations.add(new Operation("search", 5, (test, state) -> test.request(userToken,
+				"/anime/search?size=20&q=anime%20" + String.format("%07d", randomId())).build()));
+		operations.add(new Operation("batch", 1, (test, state) -> test.request(userToken, "/anime/batch")
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+				.POST(HttpRequest.BodyPublishers.ofString(IntStream.range(0, 20)
+						.mapToObj(i -> "{\"name\":\"Batch " + random(Integer.MAX_VALUE) + "\"}")
+						.collect(Collectors.joining("\n"))))
+				.build()));
+		operations.add(new Operation("patch", 3, (test, state) -> test.request(userToken, "/anime/"
+				+ test.writableId(state))
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.method("PATCH", test.json(Map.of("name", "Patched " + random(1000))))
+				.build()));
+		return operations;
+	}
+
+	private String login(String username) throws IOException, InterruptedException {
+		HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create("http://localhost:" + port
+				+ "/auth/login"))
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.POST(json(Map.of("username", username, "password", PASSWORD)))
+				.build(), HttpResponse.BodyHandlers.ofString());
+		Assertions.assertThat(response.statusCode()).isEqualTo(200);
+		return objectMapper.readValue(response.body(), TokenResponse.class).getToken();
+	}
+}
@@ -0,0 +1,368 @@
+package com.diego.spring.integration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+
+import org.HdrHistogram.Histogram;
+import org.assertj.core.api.Assertions;
+import org.assertj.core.api.SoftAssertions;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.diego.spring.util.ETagUtil;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.log4j.Log4j2;
+
+// Gerador de carga compartilhado pelos testes de carga da pilha servlet (AnimeControllerLoadIT) e da reativa
+// (ReactiveAnimeControllerLoadIT, mvn -Preactive). Carga mista em malha fechada (cada thread envia a próxima
+// requisição quando a anterior termina); as latências são corrigidas para coordinated omission (HdrHistogram)
+// usando como intervalo esperado a mediana do aquecimento. O resultado vai para target/load-test/<nome>.json
+// e é comparado com load-tests/<nome>.json quando existir (-Dload.update-baseline=true grava como baseline).
+// A mistura "core" usa só endpoints que as duas pilhas têm: é a que compara servlet e reativo.
+@Log4j2
+public abstract class AnimeLoadTestSupport {
+
+	protected static final int ROWS = Integer.getInteger("load.rows", 100_000);
+	protected static final int THREADS = Integer.getInteger("load.threads", 8);
+	protected static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+	protected static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+	private static final double TOLERANCE = Double.parseDouble(System.getProperty("load.tolerance", "0.25"));
+	private static final double MAX_ERROR_RATE = 0.01;
+	private static final long HIGHEST_LATENCY_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+	private final HttpClient client = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(Duration.ofSeconds(5))
+			.build();
+
+	protected String userToken;
+	protected String adminToken;
+
+	protected abstract int port();
+
+	protected abstract ObjectMapper objectMapper();
+
+	// Executa aquecimento e medição, grava o resultado e compara com o baseline de mesmo nome
+	protected void runAndCompare(String name, List<Operation> operations, Map<String, Object> extra) throws Exception {
+		Path resultPath = Paths.get("target/load-test", name + ".json");
+		Path baselinePath = Paths.get(System.getProperty("load.baseline", "load-tests/" + name + ".json"));
+
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("rows", ROWS);
+		result.put("threads", THREADS);
+		result.put("duration", DURATION.toString());
+		result.putAll(extra);
+
+		Run warmup = run(operations, WARMUP, 0);
+		long expectedIntervalMicros = Math.max(1, warmup.total().getValueAtPercentile(50));
+		Run measured = run(operations, DURATION, expectedIntervalMicros);
+		result.put("expectedIntervalMicros", expectedIntervalMicros);
+		result.putAll(measured.toMap(DURATION));
+
+		Files.createDirectories(resultPath.getParent());
+		objectMapper().writerWithDefaultPrettyPrinter().writeValue(resultPath.toFile(), result);
+		log.info("Load test result ({}): {}", name,
+				objectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(result));
+
+		Assertions.assertThat(measured.errorRate())
+			.as("error rate, errors per operation: %s", measured.errors)
+			.isLessThanOrEqualTo(MAX_ERROR_RATE);
+		compareWithBaseline(baselinePath, objectMapper().valueToTree(result));
+
+		if (Boolean.getBoolean("load.update-baseline")) {
+			Files.createDirectories(baselinePath.toAbsolutePath().getParent());
+			Files.copy(resultPath, baselinePath, StandardCopyOption.REPLACE_EXISTING);
+			log.info("Baseline updated at {}", baselinePath.toAbsolutePath());
+		}
+	}
+
+	// Leitura predominante, escritas e exclusões sobre os animes criados no teste
+	protected List<Operation> coreOperations() {
+		List<Operation> operations = new ArrayList<>();
+		operations.add(new Operation("list", 10, (test, state) -> test.request(userToken,
+				"/anime?size=20&page=" + random(50)).build()));
+		operations.add(new Operation("findById", 25, (test, state) -> test.request(userToken,
+				"/anime/" + randomId()).build()));
+		operations.add(new Operation("findByIdNotModified", 10, (test, state) -> {
+			long id = randomId();
+			return test.request(userToken, "/anime/" + id)
+					.header(HttpHeaders.IF_NONE_MATCH, ETagUtil.of(id, 0))
+					.build();
+		}));
+		operations.add(new Operation("findByName", 10, (test, state) -> test.request(userToken,
+				"/anime/find?name=" + name(randomId()).replace(" ", "%20")).build()));
+		operations.add(new Operation("save", 6, (test, state) -> test.request(userToken, "/anime")
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.POST(test.json(Map.of("name", "Load " + random(Integer.MAX_VALUE))))
+				.build()) {
+			@Override
+			void onResponse(ThreadState state, HttpResponse<String> response) throws IOException {
+				if (response.statusCode() == 201) {
+					state.created.add(objectMapper().readTree(response.body()).get("id").asLong());
+				}
+			}
+		});
+		operations.add(new Operation("replace", 4, (test, state) -> test.request(userToken, "/anime")
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.PUT(test.json(Map.of("id", test.writableId(state), "name", "Replaced " + random(1000))))
+				.build()));
+		// Remove apenas animes criados por esta thread, a base semeada continua intacta; sem nenhum criado ainda,
+		// não envia nada (contado em "skipped", fora das latências de delete)
+		operations.add(new Operation("delete", 3, (test, state) -> state.created.isEmpty()
+				? null
+				: test.request(adminToken, "/anime/admin/" + state.created.poll())
+					.DELETE()
+					.build()));
+		return operations;
+	}
+
+	// Alterações recaem sobre os animes criados pela thread quando existirem, para não invalidar os ETags semeados
+	protected long writableId(ThreadState state) {
+		Long id = state.created.peekLast();
+		return id != null ? id : randomId();
+	}
+
+	protected HttpRequest.Builder request(String token, String path) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port() + path))
+				.timeout(Duration.ofSeconds(30))
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+	}
+
+	protected HttpRequest.BodyPublisher json(Object body) {
+		try {
+			return HttpRequest.BodyPublishers.ofString(objectMapper().writeValueAsString(body));
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	protected <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler)
+			throws IOException, InterruptedException {
+		return client.send(request, bodyHandler);
+	}
+
+	protected static String name(long id) {
+		return String.format("Anime %07d", id);
+	}
+
+	protected static long randomId() {
+		return ThreadLocalRandom.current().nextLong(1, ROWS + 1L);
+	}
+
+	protected static int random(int bound) {
+		return ThreadLocalRandom.current().nextInt(bound);
+	}
+
+	private Run run(List<Operation> operations, Duration duration, long expectedIntervalMicros) throws Exception {
+		int totalWeight = operations.stream().mapToInt(Operation::getWeight).sum();
+		long end = System.nanoTime() + duration.toNanos();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<Run>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				futures.add(executor.submit(() -> {
+					Run run = new Run();
+					ThreadState state = new ThreadState();
+					while (System.nanoTime() < end) {
+						Operation operation = pick(operations, totalWeight);
+						HttpRequest request = operation.getRequest().apply(this, state);
+						if (request == null) {
+							run.skip(operation.getName());
+							continue;
+						}
+						long start = System.nanoTime();
+						int status;
+						try {
+							HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+							status = response.statusCode();
+							operation.onResponse(state, response);
+						} catch (IOException e) {
+							status = -1;
+						}
+						long micros = Math.min((System.nanoTime() - start) / 1000, HIGHEST_LATENCY_MICROS);
+						run.record(operation.getName(), micros, expectedIntervalMicros, status < 200 || status >= 400);
+					}
+					return run;
+				}));
+			}
+			Run merged = new Run();
+			for (Future<Run> future : futures) {
+				merged.add(future.get());
+			}
+			return merged;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Operation pick(List<Operation> operations, int totalWeight) {
+		int value = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (Operation operation : operations) {
+			value -= operation.getWeight();
+			if (value < 0) {
+				return operation;
+			}
+		}
+		return operations.get(operations.size() - 1);
+	}
+
+	private void compareWithBaseline(Path baselinePath, JsonNode current) throws IOException {
+		if (!Files.exists(baselinePath)) {
+			log.warn("No baseline at {}, run with -Dload.update-baseline=true to create one",
+					baselinePath.toAbsolutePath());
+			return;
+		}
+		JsonNode baseline = objectMapper().readTree(baselinePath.toFile());
+		if (baseline.get("rows").asInt() != ROWS || baseline.get("threads").asInt() != THREADS) {
+			log.warn("Baseline was recorded with rows={} threads={}, not comparing", baseline.get("rows"),
+					baseline.get("threads"));
+			return;
+		}
+
+		SoftAssertions softly = new SoftAssertions();
+		softly.assertThat(current.get("throughput").asDouble())
+			.as("total throughput (baseline %s req/s)", baseline.get("throughput"))
+			.isGreaterThanOrEqualTo(baseline.get("throughput").asDouble() * (1 - TOLERANCE));
+		baseline.get("operations").fields().forEachRemaining(entry -> {
+			JsonNode operation = current.get("operations").get(entry.getKey());
+			if (operation == null || entry.getValue().get("count").asLong() < 1000) {
+				return; // poucas amostras, p99 instável
+			}
+			softly.assertThat(operation.get("p99").asLong())
+				.as("%s p99 (baseline %s us)", entry.getKey(), entry.getValue().get("p99"))
+				.isLessThanOrEqualTo((long) (entry.getValue().get("p99").asLong() * (1 + TOLERANCE)));
+		});
+		softly.assertAll();
+	}
+
+	protected static class Operation {
+		private final String name;
+		private final int weight;
+		private final BiFunction<AnimeLoadTestSupport, ThreadState, HttpRequest> request;
+
+		protected Operation(String name, int weight,
+				BiFunction<AnimeLoadTestSupport, ThreadState, HttpRequest> request) {
+			this.name = name;
+			this.weight = weight;
+			this.request = request;
+		}
+
+		String getName() {
+			return name;
+		}
+
+		int getWeight() {
+			return weight;
+		}
+
+		BiFunction<AnimeLoadTestSupport, ThreadState, HttpRequest> getRequest() {
+			return request;
+		}
+
+		void onResponse(ThreadState state, HttpResponse<String> response) throws IOException {
+		}
+	}
+
+	protected static class ThreadState {
+		private final Deque<Long> created = new ArrayDeque<>();
+	}
+
+	// Histogramas por operação (latência em microssegundos) e contagem das requisições reais
+	private static class Run {
+		private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+		private final Map<String, Long> counts = new LinkedHashMap<>();
+		private final Map<String, Long> errors = new LinkedHashMap<>();
+		private final Map<String, Long> skipped = new LinkedHashMap<>();
+
+		void record(String operation, long micros, long expectedIntervalMicros, boolean error) {
+			Histogram histogram = histograms.computeIfAbsent(operation, key -> newHistogram());
+			if (expectedIntervalMicros > 0) {
+				histogram.recordValueWithExpectedInterval(micros, expectedIntervalMicros);
+			} else {
+				histogram.recordValue(micros);
+			}
+			counts.merge(operation, 1L, Long::sum);
+			if (error) {
+				errors.merge(operation, 1L, Long::sum);
+			}
+		}
+
+		// Operação sorteada que não tinha o que fazer, não é enviada nem medida
+		void skip(String operation) {
+			skipped.merge(operation, 1L, Long::sum);
+		}
+
+		void add(Run other) {
+			other.histograms.forEach((operation, histogram) ->
+					histograms.computeIfAbsent(operation, key -> newHistogram()).add(histogram));
+			other.counts.forEach((operation, count) -> counts.merge(operation, count, Long::sum));
+			other.errors.forEach((operation, count) -> errors.merge(operation, count, Long::sum));
+			other.skipped.forEach((operation, count) -> skipped.merge(operation, count, Long::sum));
+		}
+
+		Histogram total() {
+			Histogram total = newHistogram();
+			histograms.values().forEach(total::add);
+			return total;
+		}
+
+		double errorRate() {
+			long requests = counts.values().stream().mapToLong(Long::longValue).sum();
+			long failed = errors.values().stream().mapToLong(Long::longValue).sum();
+			return requests == 0 ? 1 : (double) failed / requests;
+		}
+
+		Map<String, Object> toMap(Duration duration) {
+			double seconds = duration.toNanos() / 1e9;
+			Map<String, Object> map = new LinkedHashMap<>();
+			long requests = counts.values().stream().mapToLong(Long::longValue).sum();
+			map.put("requests", requests);
+			map.put("throughput", Math.round(requests / seconds));
+			map.put("errorRate", errorRate());
+			map.put("latency", percentiles(total(), requests, seconds));
+			Map<String, Object> operations = new LinkedHashMap<>();
+			histograms.forEach((operation, histogram) ->
+					operations.put(operation, percentiles(histogram, counts.get(operation), seconds)));
+			map.put("operations", operations);
+			map.put("skipped", skipped);
+			return map;
+		}
+
+		private static Map<String, Object> percentiles(Histogram histogram, long count, double seconds) {
+			Map<String, Object> map = new LinkedHashMap<>();
+			map.put("count", count);
+			map.put("throughput", Math.round(count / seconds));
+			map.put("p50", histogram.getValueAtPercentile(50));
+			map.put("p99", histogram.getValueAtPercentile(99));
+			map.put("p999", histogram.getValueAtPercentile(99.9));
+			map.put("max", histogram.getMaxValue());
+			return map;
+		}
+
+		private static Histogram newHistogram() {
+			return new Histogram(HIGHEST_LATENCY_MICROS, 3);
+		}
+	}
+}
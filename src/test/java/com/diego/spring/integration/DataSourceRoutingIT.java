@@ -0,0 +1,136 @@
+package com.diego.spring.integration;
+
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.sql.DataSource;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.diego.spring.config.ReadWriteRoutingDataSource;
+import com.diego.spring.domain.Anime;
+import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.service.AnimeService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Dois bancos H2 independentes no lugar do primário e da réplica: sem replicação, o que só existe em um
+// deles mostra para onde cada operação foi
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:primary-${random.uuid};DB_CLOSE_DELAY=-1",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		// Esquema antes da primeira conexão: o startup já lê da réplica (reconstrução das sugestões)
+		"anime.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};DB_CLOSE_DELAY=-1;"
+				+ "INIT=RUNSCRIPT FROM 'classpath:replica-schema.sql'",
+		"anime.datasource.read-your-writes=1h",
+		"spring.jpa.show-sql=false"
+})
+@DisplayName("Tests for read/write datasource routing")
+class DataSourceRoutingIT {
+	
+	private static final long REPLICA_ONLY_ID = 1_000_000L;
+	
+	@Autowired
+	private AnimeService animeService;
+	
+	@Autowired
+	private DataSource dataSource;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	private JdbcTemplate primary;
+	private JdbcTemplate replica;
+	
+	@BeforeEach
+	void setUp() {
+		Map<Object, DataSource> pools = ((ReadWriteRoutingDataSource) ((LazyConnectionDataSourceProxy) dataSource)
+				.getTargetDataSource()).getResolvedDataSources();
+		primary = new JdbcTemplate(pools.get(ReadWriteRoutingDataSource.Route.PRIMARY));
+		replica = new JdbcTemplate(pools.get(ReadWriteRoutingDataSource.Route.REPLICA));
+	}
+	
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+	
+	@Test
+	@DisplayName("read-only service methods use replica and writes go to primary")
+	void readOnlyTransactions_UseReplica_AndWritesUsePrimary() {
+		Anime saved = animeService.save(AnimePostRequestBody.builder().name("Primary only").build());
+		
+		Assertions.assertThat(animeService.findByName("Replica only")).extracting(Anime::getId)
+			.containsExactly(REPLICA_ONLY_ID);
+		// Sem usuário autenticado não há janela de read-your-writes
+		Assertions.assertThat(animeService.findByName("Primary only")).isEmpty();
+		Assertions.assertThat(primary.queryForObject("select count(*) from anime where id = ?", Long.class,
+				saved.getId())).isEqualTo(1);
+		Assertions.assertThat(replica.queryForObject("select count(*) from anime where id = ?", Long.class,
+				saved.getId())).isZero();
+		Assertions.assertThat(meterRegistry.get(ReadWriteRoutingDataSource.METRIC_NAME)
+				.tag("route", "replica").counter().count()).isPositive();
+		Assertions.assertThat(meterRegistry.get("hikaricp.connections").tag("pool", "replica").gauge()).isNotNull();
+	}
+	
+	@Test
+	@DisplayName("reads of the user that just wrote go to primary within read-your-writes window")
+	void readOnlyTransactions_UsePrimary_WhenUserWroteRecently() {
+		authenticate("joao");
+		animeService.save(AnimePostRequestBody.builder().name("Written by joao").build());
+		
+		Assertions.assertThat(animeService.findByName("Written by joao")).hasSize(1);
+		
+		authenticate("maria");
+		// O resultado da leitura do joao (no primário) ficou no cache de consultas, compartilhado entre usuários
+		entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictQueryRegions();
+		Assertions.assertThat(animeService.findByName("Written by joao")).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("read-only transactions use manual flush and read-only entities")
+	void readOnlyTransactions_SkipFlushAndDirtyChecking() {
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		
+		readOnly.executeWithoutResult(status -> {
+			Session session = entityManager.unwrap(Session.class);
+			Anime anime = entityManager.find(Anime.class, REPLICA_ONLY_ID);
+			anime.setName("Changed in read-only transaction");
+			
+			Assertions.assertThat(session.getHibernateFlushMode()).isEqualTo(FlushMode.MANUAL);
+			Assertions.assertThat(session.isReadOnly(anime)).isTrue();
+		});
+		
+		Assertions.assertThat(animeService.findByName("Replica only")).hasSize(1);
+	}
+	
+	private static void authenticate(String username) {
+		SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null,
+				AuthorityUtils.createAuthorityList("ROLE_USER")));
+	}
+}
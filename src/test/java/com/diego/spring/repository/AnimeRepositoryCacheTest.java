@@ -0,0 +1,60 @@
+package com.diego.spring.repository;
+
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.diego.spring.config.CacheConfig;
+import com.diego.spring.domain.Anime;
+import com.diego.spring.util.AnimeCreator;
+
+@DataJpaTest
+@Import(CacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cache só é populado depois do commit
+@DisplayName("Tests for Anime Repository cache")
+class AnimeRepositoryCacheTest {
+
+	@Autowired
+	private AnimeRepository animeRepository;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Test
+	@DisplayName("findById caches anime when successful")
+	void findById_CachesAnime_WhenSuccessful() {
+		Anime animeSaved = this.animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+		Optional<Anime> first = this.animeRepository.findById(animeSaved.getId());
+		Optional<Anime> second = this.animeRepository.findById(animeSaved.getId());
+
+		Assertions.assertThat(first).isPresent();
+		// Mesma instância: a segunda busca não passou pelo banco
+		Assertions.assertThat(second).containsSame(first.get());
+
+		Cache.ValueWrapper cached = cacheManager.getCache(CacheConfig.ANIME_CACHE).get(animeSaved.getId());
+		Assertions.assertThat(cached).isNotNull();
+		Assertions.assertThat(cached.get()).isSameAs(first.get());
+	}
+
+	@Test
+	@DisplayName("findById caches negative result when anime not found")
+	void findById_CachesNegativeResult_WhenAnimeNotFound() {
+		Optional<Anime> optional = this.animeRepository.findById(-1L);
+
+		Assertions.assertThat(optional).isEmpty();
+
+		Cache.ValueWrapper cached = cacheManager.getCache(CacheConfig.ANIME_CACHE).get(-1L);
+		Assertions.assertThat(cached).isNotNull();
+		Assertions.assertThat(cached.get()).isNull();
+	}
+}
@@ -1,7 +1,10 @@
 package com.diego.spring.repository;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import javax.validation.ConstraintViolationException;
 
@@ -10,9 +13,13 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 import com.diego.spring.domain.Anime;
+import com.diego.spring.service.AnimeService;
 import com.diego.spring.util.AnimeCreator;
+import com.diego.spring.util.KeysetCursor;
 
 @DataJpaTest
 @DisplayName("Tests for Anime Repository")
@@ -47,6 +54,21 @@ class AnimeRepositoryTest {
 		Assertions.assertThat(animeUpdated.getName()).isEqualTo(animeSaved.getName());
 	}
 	
+	@Test
+	@DisplayName("Update increments version and catalog version When Successful")
+	void update_IncrementsVersion_WhenSuccessful() {
+		Anime animeSaved = this.animeRepository.saveAndFlush(AnimeCreator.createAnimeToBeSaved());
+		AnimeCatalogVersion before = this.animeRepository.findCatalogVersion();
+		
+		animeSaved.setName("Overlord");
+		this.animeRepository.saveAndFlush(animeSaved);
+		AnimeCatalogVersion after = this.animeRepository.findCatalogVersion();
+		
+		Assertions.assertThat(this.animeRepository.findVersionById(animeSaved.getId())).contains(1L);
+		Assertions.assertThat(after.getTotal()).isEqualTo(before.getTotal());
+		Assertions.assertThat(after.getVersionSum()).isEqualTo(before.getVersionSum() + 1);
+	}
+	
 	@Test
 	@DisplayName("Delete Anime When Successful")
 	void delete_RemoveAnime_WhenSuccessful() {
@@ -81,12 +103,58 @@ class AnimeRepositoryTest {
 		Assertions.assertThat(listAnime).isEmpty();
 	}
 	
+	@Test
+	@DisplayName("Keyset pagination walks every row once in both directions When names repeat")
+	void listAllKeyset_WalksEveryRowOnce_WhenNamesRepeat() {
+		// Nomes repetidos atravessam o limite das páginas: o desempate pelo id decide o que vem depois do cursor
+		List.of("Naruto", "Bleach", "Naruto", "One Piece", "Bleach", "Naruto", "Bleach")
+			.forEach(name -> this.animeRepository.save(Anime.builder().name(name).build()));
+		this.animeRepository.flush();
+		// Só listAllKeyset é usado, que depende apenas do repositório
+		AnimeService animeService = new AnimeService(this.animeRepository, event -> { }, null, null);
+		List<Anime> all = this.animeRepository.findAll();
+		Comparator<Anime> byId = Comparator.comparing(Anime::getId);
+		Comparator<Anime> byName = Comparator.comparing(Anime::getName).thenComparing(byId);
+		
+		for (int size : List.of(1, 2, 3, all.size())) {
+			assertWalk(animeService, Sort.Order.asc("id"), size, ids(all, byId));
+			assertWalk(animeService, Sort.Order.desc("id"), size, ids(all, byId.reversed()));
+			assertWalk(animeService, Sort.Order.asc("name"), size, ids(all, byName));
+			assertWalk(animeService, Sort.Order.desc("name"), size, ids(all, byName.reversed()));
+		}
+	}
+	
 	@Test
 	@DisplayName("Save Throws Constrain Violation Exception when Name is Empty")
 	void save_ThrowsConstrainViolationException_WhenNameEmpty() {
 		Anime animeToBeSaved = new Anime();
 		
-		Assertions.assertThatThrownBy(() -> this.animeRepository.save(animeToBeSaved))
+		// Com id SEQUENCE o insert (e a validação) acontece no flush
+		Assertions.assertThatThrownBy(() -> this.animeRepository.saveAndFlush(animeToBeSaved))
 			.isInstanceOfAny(ConstraintViolationException.class);
 	}
+	
+	// Segue os cursores da primeira à última página como um cliente faria
+	private static void assertWalk(AnimeService animeService, Sort.Order order, int size, List<Long> expected) {
+		String description = order + " size " + size;
+		List<Long> walked = new ArrayList<>();
+		KeysetCursor cursor = null;
+		int pages = 0;
+		Slice<Anime> page;
+		do {
+			page = animeService.listAllKeyset(cursor, order, size);
+			pages++;
+			Assertions.assertThat(page.getContent()).as(description).isNotEmpty().hasSizeLessThanOrEqualTo(size);
+			page.getContent().forEach(anime -> walked.add(anime.getId()));
+			cursor = KeysetCursor.after(order, page.getContent().get(page.getNumberOfElements() - 1));
+		} while (page.hasNext() && pages <= expected.size());
+		
+		Assertions.assertThat(walked).as(description).containsExactlyElementsOf(expected);
+		Assertions.assertThat(pages).as(description).isEqualTo((expected.size() + size - 1) / size);
+		Assertions.assertThat(animeService.listAllKeyset(cursor, order, size).getContent()).as(description).isEmpty();
+	}
+	
+	private static List<Long> ids(List<Anime> animes, Comparator<Anime> order) {
+		return animes.stream().sorted(order).map(Anime::getId).collect(Collectors.toList());
+	}
 }
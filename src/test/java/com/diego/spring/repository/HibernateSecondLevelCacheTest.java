@@ -0,0 +1,123 @@
+package com.diego.spring.repository;
+
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.diego.spring.config.HibernateCacheConfig;
+import com.diego.spring.domain.Anime;
+import com.diego.spring.domain.CustomUser;
+import com.diego.spring.util.AnimeCreator;
+
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada chamada ao repositório é uma sessão nova
+@DisplayName("Tests for Hibernate second-level and query cache")
+class HibernateSecondLevelCacheTest {
+
+	@Autowired
+	private AnimeRepository animeRepository;
+
+	@Autowired
+	private CustomUserRepository customUserRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		statistics.setStatisticsEnabled(false);
+		animeRepository.deleteAll();
+		customUserRepository.deleteAll();
+	}
+
+	@Test
+	@DisplayName("findById issues no SQL when anime is in the second-level cache")
+	void findById_IssuesNoSql_WhenAnimeIsInSecondLevelCache() {
+		Anime animeSaved = this.animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		this.animeRepository.findById(animeSaved.getId());
+		statistics.clear();
+
+		Anime anime = this.animeRepository.findById(animeSaved.getId()).orElseThrow();
+
+		Assertions.assertThat(anime.getName()).isEqualTo(animeSaved.getName());
+		Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+		Assertions.assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("findByName issues no SQL when query result is cached")
+	void findByName_IssuesNoSql_WhenQueryResultIsCached() {
+		Anime animeSaved = this.animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		this.animeRepository.findByName(animeSaved.getName());
+		statistics.clear();
+
+		List<Anime> animes = this.animeRepository.findByName(animeSaved.getName());
+
+		Assertions.assertThat(animes).extracting(Anime::getId).containsExactly(animeSaved.getId());
+		Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+		Assertions.assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("findByUsername issues no SQL when query result is cached")
+	void findByUsername_IssuesNoSql_WhenQueryResultIsCached() {
+		CustomUser userSaved = this.customUserRepository.save(CustomUser.builder()
+				.name("joao")
+				.username("joao")
+				.password("{noop}joao")
+				.authorities("ROLE_USER")
+				.build());
+		this.customUserRepository.findByUsername("joao");
+		statistics.clear();
+
+		CustomUser user = this.customUserRepository.findByUsername("joao");
+
+		Assertions.assertThat(user.getId()).isEqualTo(userSaved.getId());
+		Assertions.assertThat(user.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+		Assertions.assertThat(statistics.getPrepareStatementCount()).isZero();
+	}
+
+	@Test
+	@DisplayName("findByName returns new name when anime is updated by JPQL")
+	void findByName_ReturnsNewName_WhenAnimeIsUpdatedByJpql() {
+		Anime animeSaved = this.animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+		this.animeRepository.findByName(animeSaved.getName());
+		this.animeRepository.findById(animeSaved.getId());
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+				this.animeRepository.updateIfVersionMatches(animeSaved.getId(), null, "Renamed"));
+
+		Assertions.assertThat(this.animeRepository.findByName(animeSaved.getName())).isEmpty();
+		Assertions.assertThat(this.animeRepository.findByName("Renamed")).extracting(Anime::getId)
+				.containsExactly(animeSaved.getId());
+		Assertions.assertThat(this.animeRepository.findById(animeSaved.getId()).orElseThrow().getName())
+				.isEqualTo("Renamed");
+	}
+}
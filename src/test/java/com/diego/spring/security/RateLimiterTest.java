@@ -0,0 +1,81 @@
+package com.diego.spring.security;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests for Rate Limiter")
+class RateLimiterTest {
+
+	private final AtomicLong nanoTime = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	// 10 tokens de rajada, 1 token por segundo
+	private final RateLimiter rateLimiter = new RateLimiter(meterRegistry, 10, 1, 1000,
+			List.of("/actuator/**=0", "/anime/all=8", "/anime/batch=50"), nanoTime::get);
+
+	@Test
+	@DisplayName("tryAcquire allows a burst up to capacity and rejects with wait time after it")
+	void tryAcquire_RejectsWithRetryAfter_WhenBurstIsExhausted() {
+		for (int i = 0; i < 10; i++) {
+			Assertions.assertThat(rateLimiter.tryAcquire("user:joao", "default")).isZero();
+		}
+
+		Assertions.assertThat(rateLimiter.tryAcquire("user:joao", "default")).isEqualTo(Duration.ofSeconds(1));
+		Assertions.assertThat(meterRegistry.get("anime.rate-limit.buckets.exhausted").gauge().value()).isEqualTo(1);
+		Assertions.assertThat(meterRegistry.get("anime.rate-limit.requests")
+				.tag("endpoint", "default").tag("result", "rejected").counter().count()).isEqualTo(1);
+
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		Assertions.assertThat(rateLimiter.tryAcquire("user:joao", "default")).isZero();
+	}
+
+	@Test
+	@DisplayName("tryAcquire charges endpoint cost and keeps buckets separate per key")
+	void tryAcquire_ChargesEndpointCost_PerKey() {
+		Assertions.assertThat(rateLimiter.tryAcquire("user:joao", "/anime/all")).isZero();
+
+		Assertions.assertThat(rateLimiter.tryAcquire("user:joao", "/anime/all")).isEqualTo(Duration.ofSeconds(6));
+		Assertions.assertThat(rateLimiter.tryAcquire("user:joao", "default")).isZero();
+		Assertions.assertThat(rateLimiter.tryAcquire("user:diego", "/anime/all")).isZero();
+	}
+
+	@Test
+	@DisplayName("tryAcquire never limits zero cost endpoints and caps cost at capacity")
+	void tryAcquire_HandlesZeroAndOversizedCosts() {
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertThat(rateLimiter.tryAcquire("ip:10.0.0.1", "/actuator/**")).isZero();
+		}
+
+		Assertions.assertThat(rateLimiter.tryAcquire("ip:10.0.0.1", "/anime/batch")).isZero();
+		Assertions.assertThat(rateLimiter.tryAcquire("ip:10.0.0.1", "/anime/batch")).isEqualTo(Duration.ofSeconds(10));
+	}
+
+	@Test
+	@DisplayName("refund gives back the tokens of a successful tryAcquire")
+	void refund_GivesBackTokens_WhenAcquired() {
+		for (int i = 0; i < 100; i++) {
+			Assertions.assertThat(rateLimiter.tryAcquire("ip:10.0.0.1", "default")).isZero();
+			rateLimiter.refund("ip:10.0.0.1", "default");
+		}
+
+		Assertions.assertThat(meterRegistry.get("anime.rate-limit.buckets.exhausted").gauge().value()).isZero();
+	}
+
+	@Test
+	@DisplayName("endpointOf returns first matching pattern or default")
+	void endpointOf_ReturnsMatchingPattern() {
+		Assertions.assertThat(rateLimiter.endpointOf("/anime/all")).isEqualTo("/anime/all");
+		Assertions.assertThat(rateLimiter.endpointOf("/actuator/metrics/jvm.memory.used")).isEqualTo("/actuator/**");
+		Assertions.assertThat(rateLimiter.endpointOf("/anime/1")).isEqualTo("default");
+		Assertions.assertThat(rateLimiter.costOf("default")).isEqualTo(1);
+	}
+}
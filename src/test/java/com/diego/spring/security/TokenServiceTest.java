@@ -0,0 +1,67 @@
+package com.diego.spring.security;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.diego.spring.domain.CustomUser;
+import com.diego.spring.response.TokenResponse;
+
+@DisplayName("Tests for Token Service")
+class TokenServiceTest {
+
+	private static final Instant NOW = Instant.parse("2021-03-01T10:00:00Z");
+	
+	private static final CustomUser ADMIN = CustomUser.builder()
+			.name("diego")
+			.username("diego")
+			.authorities("ROLE_USER,ROLE_ADMIN")
+			.build();
+	
+	private final TokenService tokenService = new TokenService("secret", Duration.ofMinutes(15),
+			Clock.fixed(NOW, ZoneOffset.UTC));
+	
+	@Test
+	@DisplayName("parse returns user with authorities when token is valid")
+	void parse_ReturnsUser_WhenTokenIsValid() {
+		TokenResponse tokenResponse = tokenService.issue(ADMIN);
+		
+		Optional<CustomUser> customUser = tokenService.parse(tokenResponse.getToken());
+		
+		Assertions.assertThat(tokenResponse.getExpiresAt()).isEqualTo(NOW.plus(Duration.ofMinutes(15)));
+		Assertions.assertThat(customUser).isPresent();
+		Assertions.assertThat(customUser.get().getUsername()).isEqualTo("diego");
+		Assertions.assertThat(customUser.get().getAuthorities())
+			.extracting(GrantedAuthority::getAuthority)
+			.containsExactly("ROLE_USER", "ROLE_ADMIN");
+	}
+	
+	@Test
+	@DisplayName("parse returns empty when token signature was tampered")
+	void parse_ReturnsEmpty_WhenSignatureIsInvalid() {
+		String token = tokenService.issue(ADMIN).getToken();
+		String tampered = new TokenService("other-secret", Duration.ofMinutes(15),
+				Clock.fixed(NOW, ZoneOffset.UTC)).issue(ADMIN).getToken();
+		
+		Assertions.assertThat(tokenService.parse(tampered)).isEmpty();
+		Assertions.assertThat(tokenService.parse(token + "x")).isEmpty();
+		Assertions.assertThat(tokenService.parse("abc")).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("parse returns empty when token is expired")
+	void parse_ReturnsEmpty_WhenTokenIsExpired() {
+		String token = tokenService.issue(ADMIN).getToken();
+		TokenService later = new TokenService("secret", Duration.ofMinutes(15),
+				Clock.fixed(NOW.plus(Duration.ofMinutes(16)), ZoneOffset.UTC));
+		
+		Assertions.assertThat(later.parse(token)).isEmpty();
+	}
+}
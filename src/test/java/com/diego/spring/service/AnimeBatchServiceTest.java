@@ -0,0 +1,127 @@
+package com.diego.spring.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.request.AnimeBulkDeleteRequestBody;
+import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.response.AnimeBatchItemResult;
+import com.diego.spring.response.AnimeBatchResponse;
+import com.diego.spring.response.AnimeBulkDeleteResponse;
+
+@ExtendWith(SpringExtension.class)
+class AnimeBatchServiceTest {
+	
+	@InjectMocks
+	private AnimeBatchService animeBatchService;
+	
+	@Mock
+	private AnimeService animeServiceMock;
+	
+	@Spy // Validação real das anotações do AnimePostRequestBody
+	private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+	
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(animeBatchService, "chunkSize", 2);
+		
+		// Quando chamar saveAll(), devolve os animes com ids sequenciais
+		BDDMockito.when(animeServiceMock.saveAll(ArgumentMatchers.anyList()))
+			.thenAnswer(invocation -> {
+				List<AnimePostRequestBody> bodies = invocation.getArgument(0);
+				return bodies.stream()
+						.map(body -> Anime.builder().id((long) body.getName().hashCode()).name(body.getName()).build())
+						.collect(Collectors.toList());
+			});
+	}
+	
+	@Test
+	@DisplayName("ingest returns created and invalid items in request order")
+	void ingest_ReturnsResultsInOrder_WhenSomeItemsAreInvalid() {
+		List<AnimePostRequestBody> bodies = List.of(new AnimePostRequestBody("A"), new AnimePostRequestBody(""),
+				new AnimePostRequestBody("C"));
+		
+		AnimeBatchResponse response = animeBatchService.ingest(bodies.iterator());
+		
+		Assertions.assertThat(response.getReceived()).isEqualTo(3);
+		Assertions.assertThat(response.getCreated()).isEqualTo(2);
+		Assertions.assertThat(response.getFailed()).isEqualTo(1);
+		Assertions.assertThat(response.getItems())
+			.extracting(AnimeBatchItemResult::getStatus)
+			.containsExactly(AnimeBatchItemResult.Status.CREATED, AnimeBatchItemResult.Status.INVALID,
+					AnimeBatchItemResult.Status.CREATED);
+		Assertions.assertThat(response.getItems().get(2).getId()).isEqualTo((long) "C".hashCode());
+		
+		// Um saveAll por bloco (chunkSize = 2)
+		BDDMockito.verify(animeServiceMock, BDDMockito.times(2)).saveAll(ArgumentMatchers.anyList());
+	}
+	
+	@Test
+	@DisplayName("ingest marks chunk as failed when save throws exception")
+	void ingest_MarksChunkAsFailed_WhenSaveThrowsException() {
+		BDDMockito.when(animeServiceMock.saveAll(ArgumentMatchers.anyList()))
+			.thenThrow(new IllegalStateException("database down"));
+		
+		AnimeBatchResponse response = animeBatchService.ingest(List.of(new AnimePostRequestBody("A")).iterator());
+		
+		Assertions.assertThat(response.getCreated()).isZero();
+		Assertions.assertThat(response.getItems().get(0).getStatus()).isEqualTo(AnimeBatchItemResult.Status.FAILED);
+		Assertions.assertThat(response.getItems().get(0).getMessage()).isEqualTo("database down");
+	}
+	
+	@Test
+	@DisplayName("delete by ids runs one deleteAll per chunk and reports missing ids")
+	void delete_ReportsNotFound_WhenSomeIdsDoNotExist() {
+		// Quando chamar deleteAll(), apenas ids pares existem
+		BDDMockito.when(animeServiceMock.deleteAll(ArgumentMatchers.anyCollection()))
+			.thenAnswer(invocation -> {
+				Collection<Long> ids = invocation.getArgument(0);
+				return ids.stream().filter(id -> id % 2 == 0).collect(Collectors.toList());
+			});
+		
+		AnimeBulkDeleteResponse response = animeBatchService.delete(AnimeBulkDeleteRequestBody.builder()
+				.ids(new LinkedHashSet<>(List.of(1L, 2L, 3L, 4L, 5L)))
+				.build());
+		
+		Assertions.assertThat(response.getDeleted()).isEqualTo(2);
+		Assertions.assertThat(response.getChunks()).isEqualTo(3);
+		Assertions.assertThat(response.getNotFound()).containsExactly(1L, 3L, 5L);
+	}
+	
+	@Test
+	@DisplayName("delete by name deletes chunks until no anime is left")
+	void delete_DeletesAllChunks_WhenFilteringByName() {
+		BDDMockito.when(animeServiceMock.findIdsByName("A", 2))
+			.thenReturn(List.of(1L, 2L), List.of(3L), List.of());
+		BDDMockito.when(animeServiceMock.deleteAll(ArgumentMatchers.anyCollection()))
+			.thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<Long>>getArgument(0)));
+		
+		AnimeBulkDeleteResponse response = animeBatchService.delete(AnimeBulkDeleteRequestBody.builder()
+				.name("A")
+				.build());
+		
+		Assertions.assertThat(response.getDeleted()).isEqualTo(3);
+		Assertions.assertThat(response.getChunks()).isEqualTo(2);
+		Assertions.assertThat(response.getNotFound()).isNull();
+	}
+}
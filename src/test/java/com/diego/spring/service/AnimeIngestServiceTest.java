@@ -0,0 +1,201 @@
+package com.diego.spring.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.exception.BadRequestException;
+import com.diego.spring.exception.ServiceUnavailableException;
+import com.diego.spring.request.AnimePostRequestBody;
+import com.diego.spring.response.AnimeIngestStatus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests for Anime Ingest Service")
+class AnimeIngestServiceTest {
+
+	private final AnimeService animeServiceMock = Mockito.mock(AnimeService.class);
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AtomicLong ids = new AtomicLong();
+	private AnimeIngestService animeIngestService;
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		if (animeIngestService != null) {
+			animeIngestService.close();
+		}
+	}
+
+	@Test
+	@DisplayName("submit returns pending status and writer creates anime when successful")
+	void submit_CreatesAnimeInBackground_WhenSuccessful() throws InterruptedException {
+		saveAllAssignsIds();
+		animeIngestService = ingestService(10);
+
+		AnimeIngestStatus status = animeIngestService.submit(body("Naruto"));
+
+		Assertions.assertThat(status.getStatus()).isEqualTo(AnimeIngestStatus.Status.PENDING);
+		AnimeIngestStatus finished = awaitFinished(status.getTrackingId());
+		Assertions.assertThat(finished.getStatus()).isEqualTo(AnimeIngestStatus.Status.CREATED);
+		Assertions.assertThat(finished.getId()).isNotNull();
+		Assertions.assertThat(meterRegistry.get("anime.ingest.items").tag("result", "created").counter().count())
+				.isEqualTo(1);
+		Assertions.assertThat(meterRegistry.get("anime.ingest.commit").tag("result", "success").timer().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	@DisplayName("submit throws ServiceUnavailableException when queue is full")
+	void submit_ThrowsServiceUnavailableException_WhenQueueIsFull() throws InterruptedException {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		BDDMockito.when(animeServiceMock.saveAll(ArgumentMatchers.anyList())).thenAnswer(invocation -> {
+			writing.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return saved(invocation.getArgument(0));
+		});
+		animeIngestService = ingestService(1);
+
+		// O primeiro item prende o writer, o segundo ocupa a fila
+		animeIngestService.submit(body("Naruto"));
+		Assertions.assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+		animeIngestService.submit(body("Bleach"));
+
+		Assertions.assertThatExceptionOfType(ServiceUnavailableException.class)
+			.isThrownBy(() -> animeIngestService.submit(body("One Piece")));
+		Assertions.assertThat(meterRegistry.get("anime.ingest.queue.size").gauge().value()).isEqualTo(1);
+		Assertions.assertThat(meterRegistry.get("anime.ingest.items").tag("result", "rejected").counter().count())
+				.isEqualTo(1);
+		release.countDown();
+	}
+
+	@Test
+	@DisplayName("writer saves items one by one and marks only the failing one when batch fails")
+	void write_MarksOnlyFailingItem_WhenBatchFails() throws InterruptedException {
+		BDDMockito.when(animeServiceMock.saveAll(ArgumentMatchers.anyList()))
+			.thenThrow(new IllegalStateException("batch failed"));
+		BDDMockito.when(animeServiceMock.save(ArgumentMatchers.any(AnimePostRequestBody.class)))
+			.thenAnswer(invocation -> {
+				AnimePostRequestBody body = invocation.getArgument(0);
+				if ("Bleach".equals(body.getName())) {
+					throw new IllegalStateException("duplicated");
+				}
+				return Anime.builder().id(ids.incrementAndGet()).name(body.getName()).build();
+			});
+		animeIngestService = ingestService(10);
+
+		AnimeIngestStatus naruto = animeIngestService.submit(body("Naruto"));
+		AnimeIngestStatus bleach = animeIngestService.submit(body("Bleach"));
+
+		Assertions.assertThat(awaitFinished(naruto.getTrackingId()).getStatus())
+			.isEqualTo(AnimeIngestStatus.Status.CREATED);
+		AnimeIngestStatus failed = awaitFinished(bleach.getTrackingId());
+		Assertions.assertThat(failed.getStatus()).isEqualTo(AnimeIngestStatus.Status.FAILED);
+		Assertions.assertThat(failed.getMessage()).isEqualTo("duplicated");
+	}
+
+	@Test
+	@DisplayName("close writes queued items before returning")
+	void close_WritesQueuedItems_BeforeReturning() throws InterruptedException {
+		saveAllAssignsIds();
+		animeIngestService = ingestService(100);
+		List<AnimeIngestStatus> statuses = List.of("Naruto", "Bleach", "One Piece").stream()
+				.map(name -> animeIngestService.submit(body(name)))
+				.collect(Collectors.toList());
+
+		animeIngestService.close();
+
+		Assertions.assertThat(statuses).allSatisfy(status -> Assertions.assertThat(animeIngestService
+				.findStatusOrThrowBadRequestException(status.getTrackingId()).getStatus())
+				.isEqualTo(AnimeIngestStatus.Status.CREATED));
+		Assertions.assertThatExceptionOfType(ServiceUnavailableException.class)
+			.isThrownBy(() -> animeIngestService.submit(body("Naruto")));
+	}
+
+	@Test
+	@DisplayName("findStatusOrThrowBadRequestException keeps pending items past the ttl and expires finished ones")
+	void findStatusOrThrowBadRequestException_KeepsPendingItems_WhenWriterIsStalledPastTtl()
+			throws InterruptedException {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		BDDMockito.when(animeServiceMock.saveAll(ArgumentMatchers.anyList())).thenAnswer(invocation -> {
+			writing.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return saved(invocation.getArgument(0));
+		});
+		Duration ttl = Duration.ofMillis(50);
+		animeIngestService = new AnimeIngestService(animeServiceMock, meterRegistry, true, 10, 100, ttl,
+				Duration.ofSeconds(5));
+
+		// O primeiro item prende o writer, o segundo espera na fila
+		AnimeIngestStatus writingItem = animeIngestService.submit(body("Naruto"));
+		Assertions.assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+		AnimeIngestStatus queuedItem = animeIngestService.submit(body("Bleach"));
+		Thread.sleep(ttl.toMillis() * 4);
+
+		Assertions.assertThat(animeIngestService.findStatusOrThrowBadRequestException(writingItem.getTrackingId())
+				.getStatus()).isEqualTo(AnimeIngestStatus.Status.PENDING);
+		Assertions.assertThat(animeIngestService.findStatusOrThrowBadRequestException(queuedItem.getTrackingId())
+				.getStatus()).isEqualTo(AnimeIngestStatus.Status.PENDING);
+
+		release.countDown();
+		Assertions.assertThat(awaitFinished(queuedItem.getTrackingId()).getStatus())
+			.isEqualTo(AnimeIngestStatus.Status.CREATED);
+		Thread.sleep(ttl.toMillis() * 4);
+
+		Assertions.assertThatExceptionOfType(BadRequestException.class)
+			.isThrownBy(() -> animeIngestService.findStatusOrThrowBadRequestException(queuedItem.getTrackingId()));
+	}
+
+	@Test
+	@DisplayName("findStatusOrThrowBadRequestException throws BadRequestException when tracking id is unknown")
+	void findStatusOrThrowBadRequestException_ThrowsBadRequestException_WhenTrackingIdIsUnknown() {
+		animeIngestService = ingestService(10);
+
+		Assertions.assertThatExceptionOfType(BadRequestException.class)
+			.isThrownBy(() -> animeIngestService.findStatusOrThrowBadRequestException("unknown"));
+	}
+
+	private AnimeIngestService ingestService(int queueCapacity) {
+		return new AnimeIngestService(animeServiceMock, meterRegistry, true, queueCapacity, 100,
+				Duration.ofMinutes(1), Duration.ofSeconds(5));
+	}
+
+	private void saveAllAssignsIds() {
+		BDDMockito.when(animeServiceMock.saveAll(ArgumentMatchers.anyList()))
+			.thenAnswer(invocation -> saved(invocation.getArgument(0)));
+	}
+
+	private List<Anime> saved(List<AnimePostRequestBody> bodies) {
+		return bodies.stream()
+				.map(body -> Anime.builder().id(ids.incrementAndGet()).name(body.getName()).build())
+				.collect(Collectors.toList());
+	}
+
+	private AnimeIngestStatus awaitFinished(String trackingId) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		AnimeIngestStatus status = animeIngestService.findStatusOrThrowBadRequestException(trackingId);
+		while (status.getStatus() == AnimeIngestStatus.Status.PENDING && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+			status = animeIngestService.findStatusOrThrowBadRequestException(trackingId);
+		}
+		return status;
+	}
+
+	private static AnimePostRequestBody body(String name) {
+		return AnimePostRequestBody.builder().name(name).build();
+	}
+}
@@ -0,0 +1,184 @@
+package com.diego.spring.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.event.AnimeChangedEvent;
+import com.diego.spring.exception.BadRequestException;
+import com.diego.spring.repository.AnimeCatalogVersion;
+import com.diego.spring.response.AnimeSearchHit;
+import com.diego.spring.response.AnimeSearchResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AnimeSearchServiceTest {
+	
+	@TempDir
+	Path indexPath;
+	
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	
+	private AnimeService animeServiceMock;
+	
+	private AnimeSearchService animeSearchService;
+	
+	@BeforeEach
+	void setUp() {
+		animeServiceMock = Mockito.mock(AnimeService.class);
+		
+		// Quando chamar forEachAnime(), entrega o catálogo inicial
+		BDDMockito.doAnswer(invocation -> {
+			Consumer<Anime> consumer = invocation.getArgument(0);
+			consumer.accept(Anime.builder().id(1L).name("Naruto").build());
+			consumer.accept(Anime.builder().id(2L).name("Naruto Shippuden").build());
+			consumer.accept(Anime.builder().id(3L).name("Pokémon").build());
+			consumer.accept(Anime.builder().id(4L).name("One Piece").build());
+			return null;
+		}).when(animeServiceMock).forEachAnime(ArgumentMatchers.any());
+		BDDMockito.when(animeServiceMock.findCatalogVersion()).thenReturn(catalogVersion(4, 4, 0));
+		
+		animeSearchService = new AnimeSearchService(animeServiceMock, meterRegistry, indexPath.toString());
+		animeSearchService.rebuildIfStale();
+	}
+	
+	@AfterEach
+	void tearDown() throws IOException {
+		animeSearchService.close();
+	}
+	
+	@Test
+	@DisplayName("search ranks exact matches first and tolerates typos, prefixes and accents")
+	void search_ReturnsRankedHits_WhenQueryMatches() {
+		Assertions.assertThat(animeSearchService.search("naruto", 0, 10).getHits())
+			.extracting(AnimeSearchHit::getId)
+			.containsExactly(1L, 2L);
+		
+		Assertions.assertThat(animeSearchService.search("narto", 0, 10).getHits())
+			.extracting(AnimeSearchHit::getId)
+			.contains(1L, 2L);
+		
+		Assertions.assertThat(animeSearchService.search("shipp", 0, 10).getHits())
+			.extracting(AnimeSearchHit::getId)
+			.containsExactly(2L);
+		
+		Assertions.assertThat(animeSearchService.search("POKEMON", 0, 10).getHits())
+			.extracting(AnimeSearchHit::getName)
+			.containsExactly("Pokémon");
+	}
+	
+	@Test
+	@DisplayName("index size is exported as metric")
+	void metrics_ReportIndexedDocuments() {
+		Assertions.assertThat(meterRegistry.get("anime.search.index.documents").gauge().value()).isEqualTo(4);
+	}
+	
+	@Test
+	@DisplayName("search paginates hits and reports total")
+	void search_PaginatesHits() {
+		AnimeSearchResponse secondPage = animeSearchService.search("naruto", 1, 1);
+		
+		Assertions.assertThat(secondPage.getTotalHits()).isEqualTo(2);
+		Assertions.assertThat(secondPage.getHits())
+			.extracting(AnimeSearchHit::getId)
+			.containsExactly(2L);
+		
+		Assertions.assertThatExceptionOfType(BadRequestException.class)
+			.isThrownBy(() -> animeSearchService.search("naruto", 0, AnimeSearchService.MAX_RESULTS + 1));
+	}
+	
+	@Test
+	@DisplayName("search reflects saved, updated and deleted animes after refresh")
+	void search_ReflectsChanges_WhenAnimeChangedEventsArePublished() throws IOException {
+		animeSearchService.onAnimeChanged(AnimeChangedEvent.saved(5L, "Overlord"));
+		animeSearchService.onAnimeChanged(AnimeChangedEvent.updated(1L, "Boruto"));
+		animeSearchService.onAnimeChanged(AnimeChangedEvent.deleted(4L));
+		animeSearchService.refresh();
+		
+		Assertions.assertThat(animeSearchService.search("overlord", 0, 10).getHits()).hasSize(1);
+		Assertions.assertThat(animeSearchService.search("naruto", 0, 10).getHits())
+			.extracting(AnimeSearchHit::getId)
+			.containsExactly(2L);
+		Assertions.assertThat(animeSearchService.search("piece", 0, 10).getHits()).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("index is reopened from disk without rebuilding when watermark matches catalog")
+	void rebuildIfStale_DoesNotRebuild_WhenWatermarkMatchesCatalog() throws IOException {
+		BDDMockito.when(animeServiceMock.findCatalogVersion()).thenReturn(catalogVersion(5, 5, 0));
+		animeSearchService.onAnimeChanged(AnimeChangedEvent.saved(5L, "Overlord"));
+		animeSearchService.close();
+		
+		animeSearchService = new AnimeSearchService(animeServiceMock, new SimpleMeterRegistry(), indexPath.toString());
+		animeSearchService.rebuildIfStale();
+		
+		Mockito.verify(animeServiceMock, Mockito.times(1)).forEachAnime(ArgumentMatchers.any());
+		Assertions.assertThat(animeSearchService.search("overlord", 0, 10).getHits()).hasSize(1);
+	}
+	
+	@Test
+	@DisplayName("index is rebuilt on startup when catalog changed after the last commit")
+	void rebuildIfStale_Rebuilds_WhenCatalogChangedAfterLastCommit() throws IOException {
+		// Escrita não vista pelo índice: crash antes do commit, outra instância ou SQL direto
+		animeSearchService.close();
+		BDDMockito.when(animeServiceMock.findCatalogVersion()).thenReturn(catalogVersion(4, 4, 1));
+		
+		animeSearchService = new AnimeSearchService(animeServiceMock, new SimpleMeterRegistry(), indexPath.toString());
+		animeSearchService.rebuildIfStale();
+		
+		Mockito.verify(animeServiceMock, Mockito.times(2)).forEachAnime(ArgumentMatchers.any());
+	}
+	
+	@Test
+	@DisplayName("rebuild applies events received during the database scan after it")
+	void rebuild_AppliesEventsReceivedDuringScan_AfterScan() throws IOException {
+		// A leitura do banco entrega o nome antigo do id 1 depois de o evento de update chegar
+		BDDMockito.doAnswer(invocation -> {
+			Consumer<Anime> consumer = invocation.getArgument(0);
+			animeSearchService.onAnimeChanged(AnimeChangedEvent.updated(1L, "Boruto"));
+			animeSearchService.onAnimeChanged(AnimeChangedEvent.deleted(2L));
+			consumer.accept(Anime.builder().id(1L).name("Naruto").build());
+			consumer.accept(Anime.builder().id(2L).name("Naruto Shippuden").build());
+			return null;
+		}).when(animeServiceMock).forEachAnime(ArgumentMatchers.any());
+		
+		animeSearchService.rebuild();
+		animeSearchService.refresh();
+		
+		Assertions.assertThat(animeSearchService.search("naruto", 0, 10).getHits()).isEmpty();
+		Assertions.assertThat(animeSearchService.search("boruto", 0, 10).getHits())
+			.extracting(AnimeSearchHit::getId)
+			.containsExactly(1L);
+	}
+	
+	private static AnimeCatalogVersion catalogVersion(long total, long maxId, long versionSum) {
+		return new AnimeCatalogVersion() {
+			@Override
+			public long getTotal() {
+				return total;
+			}
+			
+			@Override
+			public long getMaxId() {
+				return maxId;
+			}
+			
+			@Override
+			public long getVersionSum() {
+				return versionSum;
+			}
+		};
+	}
+}
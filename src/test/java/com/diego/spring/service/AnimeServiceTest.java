@@ -1,8 +1,12 @@
 package com.diego.spring.service;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,18 +17,33 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import com.diego.spring.config.CacheConfig;
 import com.diego.spring.domain.Anime;
 import com.diego.spring.exception.BadRequestException;
+import com.diego.spring.exception.ConflictException;
 import com.diego.spring.repository.AnimeRepository;
+import com.diego.spring.request.AnimePatchRequestBody;
+import com.diego.spring.request.AnimePutRequestBody;
+import com.diego.spring.response.AnimeMultiGetResponse;
 import com.diego.spring.util.AnimeCreator;
 import com.diego.spring.util.AnimePostRequestBodyCreator;
 import com.diego.spring.util.AnimePutRequestBodyCreator;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(SpringExtension.class) //teste unitário, junit com spring
 class AnimeServiceTest {
 
@@ -34,8 +53,19 @@ class AnimeServiceTest {
 	@Mock //Testar todas as classes que estão sendo utilizadas dentro do AnimeController
 	private AnimeRepository animeRepositoryMock;
 	
+	@Mock
+	private ApplicationEventPublisher eventPublisherMock;
+	
+	@Mock
+	private ObjectProvider<CacheManager> cacheManagerProviderMock;
+	
+	@Spy
+	private SingleFlight singleFlight = new SingleFlight(new SimpleMeterRegistry(), Duration.ofSeconds(1), true);
+	
 	@BeforeEach // Fazer antes de cada teste (métodos)
 	void setUp() {
+		ReflectionTestUtils.setField(animeService, "multiGetBatchSize", 2);
+		
 		//Definir os comportamentos
 		PageImpl<Anime> animePage = new PageImpl<>(List.of(AnimeCreator.createValidAnime()));
 		
@@ -59,8 +89,14 @@ class AnimeServiceTest {
 		BDDMockito.when(animeRepositoryMock.save(ArgumentMatchers.any(Anime.class)))
 			.thenReturn(AnimeCreator.createValidAnime());
 		
-		// Quando chamar delete(), faz absolutamente nada
-		BDDMockito.doNothing().when(animeRepositoryMock).delete(ArgumentMatchers.any(Anime.class));
+		// Quando chamar updateIfVersionMatches(), uma linha alterada
+		BDDMockito.when(animeRepositoryMock.updateIfVersionMatches(ArgumentMatchers.anyLong(), ArgumentMatchers.any(),
+				ArgumentMatchers.any()))
+			.thenReturn(1);
+		
+		// Quando chamar deleteAnimeById(), uma linha removida
+		BDDMockito.when(animeRepositoryMock.deleteAnimeById(ArgumentMatchers.anyLong()))
+			.thenReturn(1);
 	}
 	
 	@Test
@@ -161,6 +197,48 @@ class AnimeServiceTest {
 		
 	}
 	
+	@Test
+	@DisplayName("replace throws ConflictException when version changed")
+	void replace_ThrowsConflictException_WhenVersionChanged() {
+		BDDMockito.when(animeRepositoryMock.updateIfVersionMatches(ArgumentMatchers.anyLong(), ArgumentMatchers.any(),
+				ArgumentMatchers.any()))
+			.thenReturn(0);
+		BDDMockito.when(animeRepositoryMock.existsById(ArgumentMatchers.anyLong()))
+			.thenReturn(true);
+		AnimePutRequestBody animePutRequestBody = AnimePutRequestBodyCreator.createAnimePutRequestBody();
+		animePutRequestBody.setVersion(0L);
+		
+		Assertions.assertThatExceptionOfType(ConflictException.class)
+			.isThrownBy(() -> animeService.replace(animePutRequestBody));
+	}
+	
+	@Test
+	@DisplayName("replace throws BadRequestException when anime not found")
+	void replace_ThrowsBadRequestException_WhenAnimeNotFound() {
+		BDDMockito.when(animeRepositoryMock.updateIfVersionMatches(ArgumentMatchers.anyLong(), ArgumentMatchers.any(),
+				ArgumentMatchers.any()))
+			.thenReturn(0);
+		BDDMockito.when(animeRepositoryMock.existsById(ArgumentMatchers.anyLong()))
+			.thenReturn(false);
+		
+		Assertions.assertThatExceptionOfType(BadRequestException.class)
+			.isThrownBy(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()));
+	}
+	
+	@Test
+	@DisplayName("patch without changes only checks the version")
+	void patch_ChecksVersion_WhenNoFieldIsSent() {
+		BDDMockito.when(animeRepositoryMock.findVersionById(ArgumentMatchers.anyLong()))
+			.thenReturn(Optional.of(2L));
+		
+		Assertions.assertThatCode(() -> animeService.patch(1, AnimePatchRequestBody.builder().version(2L).build()))
+			.doesNotThrowAnyException();
+		Assertions.assertThatExceptionOfType(ConflictException.class)
+			.isThrownBy(() -> animeService.patch(1, AnimePatchRequestBody.builder().version(1L).build()));
+		BDDMockito.verify(animeRepositoryMock, Mockito.never())
+			.updateIfVersionMatches(ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
+	}
+	
 	@Test
 	@DisplayName("delete remove Anime when successful")
 	void delete_RemoveAnime_WhenSuccessful() {
@@ -169,4 +247,104 @@ class AnimeServiceTest {
 			.doesNotThrowAnyException();
 		
 	}
+	
+	@Test
+	@DisplayName("delete throws BadRequestException when anime not found")
+	void delete_ThrowsBadRequestException_WhenAnimeNotFound() {
+		BDDMockito.when(animeRepositoryMock.deleteAnimeById(ArgumentMatchers.anyLong()))
+			.thenReturn(0);
+		
+		Assertions.assertThatExceptionOfType(BadRequestException.class)
+			.isThrownBy(() -> animeService.delete(1));
+		BDDMockito.verify(eventPublisherMock, Mockito.never()).publishEvent(ArgumentMatchers.any());
+	}
+	
+	@Test
+	@DisplayName("deleteAll removes only existing ids and returns them")
+	void deleteAll_ReturnsExistingIds_WhenSomeIdsDoNotExist() {
+		BDDMockito.when(animeRepositoryMock.findIdsByIdIn(ArgumentMatchers.anyCollection()))
+			.thenReturn(List.of(1L));
+		
+		List<Long> deleted = animeService.deleteAll(List.of(1L, 2L));
+		
+		Assertions.assertThat(deleted).containsExactly(1L);
+		BDDMockito.verify(animeRepositoryMock).deleteAnimesByIdIn(List.of(1L));
+	}
+	
+	@Test
+	@DisplayName("deleteAll evicts only the deleted ids from the cache")
+	void deleteAll_EvictsOnlyDeletedIds_WhenSuccessful() {
+		CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ANIME_CACHE);
+		Cache cache = cacheManager.getCache(CacheConfig.ANIME_CACHE);
+		cache.put(1L, Anime.builder().id(1L).name("Deleted").build());
+		cache.put(3L, Anime.builder().id(3L).name("Untouched").build());
+		BDDMockito.when(cacheManagerProviderMock.getIfAvailable()).thenReturn(cacheManager);
+		BDDMockito.when(animeRepositoryMock.findIdsByIdIn(ArgumentMatchers.anyCollection()))
+			.thenReturn(List.of(1L));
+		
+		animeService.deleteAll(List.of(1L, 2L));
+		
+		Assertions.assertThat(cache.get(1L)).isNull();
+		Assertions.assertThat(cache.get(3L)).isNotNull();
+	}
+	
+	@Test
+	@DisplayName("findVersionByIdCacheFirst returns cached version without querying the repository")
+	void findVersionByIdCacheFirst_DoesNotQueryRepository_WhenAnimeIsCached() {
+		CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ANIME_CACHE);
+		Cache cache = cacheManager.getCache(CacheConfig.ANIME_CACHE);
+		cache.put(1L, Anime.builder().id(1L).name("Cached").version(3L).build());
+		cache.put(4L, null); // busca negativa
+		BDDMockito.when(cacheManagerProviderMock.getIfAvailable()).thenReturn(cacheManager);
+		BDDMockito.when(animeRepositoryMock.findVersionById(2L)).thenReturn(Optional.of(7L));
+		
+		Assertions.assertThat(animeService.findVersionByIdCacheFirst(1L)).contains(3L);
+		Assertions.assertThat(animeService.findVersionByIdCacheFirst(4L)).isEmpty();
+		Assertions.assertThat(animeService.findVersionByIdCacheFirst(2L)).contains(7L);
+		
+		Mockito.verify(animeRepositoryMock, Mockito.never()).findVersionById(1L);
+		Mockito.verify(animeRepositoryMock, Mockito.never()).findVersionById(4L);
+		Mockito.verify(animeRepositoryMock).findVersionById(2L);
+	}
+	
+	@Test
+	@DisplayName("findAllByIds returns animes in request order and missing ids, using the cache first")
+	void findAllByIds_ReturnsAnimesInOrder_WhenSomeAreCached() {
+		CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.ANIME_CACHE);
+		Cache cache = cacheManager.getCache(CacheConfig.ANIME_CACHE);
+		cache.put(3L, Anime.builder().id(3L).name("Cached").build());
+		cache.put(4L, null); // busca negativa
+		BDDMockito.when(cacheManagerProviderMock.getIfAvailable()).thenReturn(cacheManager);
+		// Quando chamar findAllById(), devolve apenas os ids 1 e 2, fora de ordem
+		BDDMockito.when(animeRepositoryMock.findAllById(ArgumentMatchers.anyIterable()))
+			.thenAnswer(invocation -> {
+				List<Anime> animes = new ArrayList<>();
+				invocation.<Iterable<Long>>getArgument(0).forEach(id -> {
+					if (id <= 2) {
+						animes.add(0, Anime.builder().id(id).name("Anime " + id).build());
+					}
+				});
+				return animes;
+			});
+		
+		AnimeMultiGetResponse response = animeService.findAllByIds(List.of(2L, 3L, 4L, 5L, 1L, 2L));
+		
+		Assertions.assertThat(response.getContent())
+			.extracting(Anime::getId)
+			.containsExactly(2L, 3L, 1L);
+		Assertions.assertThat(response.getMissing()).containsExactly(4L, 5L);
+		// 2, 5 e 1 não estavam no cache: dois blocos de IN (batch size 2)
+		BDDMockito.verify(animeRepositoryMock, Mockito.times(2)).findAllById(ArgumentMatchers.anyIterable());
+		Assertions.assertThat(cache.get(1L).get()).isNotNull();
+	}
+	
+	@Test
+	@DisplayName("findAllByIds throws BadRequestException when too many ids are requested")
+	void findAllByIds_ThrowsBadRequestException_WhenTooManyIds() {
+		List<Long> ids = LongStream.rangeClosed(1, AnimeService.MULTI_GET_MAX_IDS + 1).boxed()
+				.collect(Collectors.toList());
+		
+		Assertions.assertThatExceptionOfType(BadRequestException.class)
+			.isThrownBy(() -> animeService.findAllByIds(ids));
+	}
 }
@@ -0,0 +1,171 @@
+package com.diego.spring.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+
+import com.diego.spring.domain.Anime;
+import com.diego.spring.event.AnimeChangedEvent;
+import com.diego.spring.response.AnimeSuggestion;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AnimeSuggestServiceTest {
+	
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	
+	private AnimeService animeServiceMock;
+	private AnimeSuggestService animeSuggestService;
+	
+	@BeforeEach
+	void setUp() {
+		animeServiceMock = Mockito.mock(AnimeService.class);
+		
+		// Quando chamar forEachAnime(), entrega o catálogo inicial
+		BDDMockito.doAnswer(invocation -> {
+			Consumer<Anime> consumer = invocation.getArgument(0);
+			consumer.accept(Anime.builder().id(1L).name("Naruto").build());
+			consumer.accept(Anime.builder().id(2L).name("Naruto Shippuden").build());
+			consumer.accept(Anime.builder().id(3L).name("Pokémon").build());
+			consumer.accept(Anime.builder().id(4L).name("One Piece").build());
+			return null;
+		}).when(animeServiceMock).forEachAnime(ArgumentMatchers.any());
+		
+		animeSuggestService = new AnimeSuggestService(animeServiceMock, meterRegistry);
+		animeSuggestService.rebuild();
+	}
+	
+	@Test
+	@DisplayName("suggest returns animes starting with prefix ignoring case and accents")
+	void suggest_ReturnsMatchingAnimes_WhenPrefixMatches() {
+		Assertions.assertThat(animeSuggestService.suggest("NAR", 10))
+			.extracting(AnimeSuggestion::getName)
+			.containsExactly("Naruto", "Naruto Shippuden");
+		
+		Assertions.assertThat(animeSuggestService.suggest("poke", 10))
+			.extracting(AnimeSuggestion::getId)
+			.containsExactly(3L);
+	}
+	
+	@Test
+	@DisplayName("suggest respects limit")
+	void suggest_RespectsLimit() {
+		Assertions.assertThat(animeSuggestService.suggest("n", 1)).hasSize(1);
+		Assertions.assertThat(animeSuggestService.suggest("n", 0)).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("suggest reflects saved, updated and deleted animes")
+	void suggest_ReflectsChanges_WhenAnimeChangedEventsArePublished() {
+		animeSuggestService.onAnimeChanged(AnimeChangedEvent.saved(5L, "Overlord"));
+		animeSuggestService.onAnimeChanged(AnimeChangedEvent.updated(1L, "Boruto"));
+		animeSuggestService.onAnimeChanged(AnimeChangedEvent.deleted(4L));
+		
+		Assertions.assertThat(animeSuggestService.suggest("o", 10))
+			.extracting(AnimeSuggestion::getName)
+			.containsExactly("Overlord");
+		Assertions.assertThat(animeSuggestService.suggest("nar", 10))
+			.extracting(AnimeSuggestion::getName)
+			.containsExactly("Naruto Shippuden");
+		Assertions.assertThat(animeSuggestService.suggest("bor", 10))
+			.extracting(AnimeSuggestion::getId)
+			.containsExactly(1L);
+	}
+	
+	@Test
+	@DisplayName("suggest leaves no stale name when the same anime is renamed and deleted concurrently")
+	void suggest_LeavesNoStaleName_WhenAnimeIsRenamedAndDeletedConcurrently() throws Exception {
+		int threads = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < 10_000; i++) {
+						if (thread % 2 == 0) {
+							animeSuggestService.onAnimeChanged(AnimeChangedEvent.updated(1L, "Boruto " + thread + i));
+						} else {
+							animeSuggestService.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		animeSuggestService.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+		
+		Assertions.assertThat(animeSuggestService.indexSize()).isEqualTo(3);
+		Assertions.assertThat(animeSuggestService.suggest("bor", 10)).isEmpty();
+		Assertions.assertThat(animeSuggestService.suggest("nar", 10))
+			.extracting(AnimeSuggestion::getName)
+			.containsExactly("Naruto Shippuden");
+	}
+	
+	@Test
+	@DisplayName("rebuild does not bring back an anime deleted while the database scan is running")
+	void rebuild_DoesNotRestoreDeletedAnime_WhenDeletedDuringScan() throws Exception {
+		CountDownLatch scanStarted = new CountDownLatch(1);
+		CountDownLatch deleted = new CountDownLatch(1);
+		// A leitura do banco entrega a linha do id 1 depois de o delete ter sido publicado
+		BDDMockito.doAnswer(invocation -> {
+			Consumer<Anime> consumer = invocation.getArgument(0);
+			scanStarted.countDown();
+			Assertions.assertThat(deleted.await(5, TimeUnit.SECONDS)).isTrue();
+			consumer.accept(Anime.builder().id(1L).name("Naruto").build());
+			consumer.accept(Anime.builder().id(2L).name("Naruto Shippuden").build());
+			return null;
+		}).when(animeServiceMock).forEachAnime(ArgumentMatchers.any());
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> rebuild = executor.submit(animeSuggestService::rebuild);
+			Assertions.assertThat(scanStarted.await(5, TimeUnit.SECONDS)).isTrue();
+			animeSuggestService.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+			deleted.countDown();
+			rebuild.get(5, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		Assertions.assertThat(animeSuggestService.suggest("nar", 10))
+			.extracting(AnimeSuggestion::getId)
+			.containsExactly(2L);
+		Assertions.assertThat(animeSuggestService.indexSize()).isEqualTo(3);
+	}
+	
+	@Test
+	@DisplayName("index size and memory are exported as metrics")
+	void metrics_ReportIndexSizeAndMemory() {
+		Assertions.assertThat(meterRegistry.get("anime.suggest.index.entries").gauge().value()).isEqualTo(4);
+		Assertions.assertThat(meterRegistry.get("anime.suggest.index.memory").gauge().value()).isPositive();
+		
+		animeSuggestService.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+		
+		Assertions.assertThat(meterRegistry.get("anime.suggest.index.entries").gauge().value()).isEqualTo(3);
+		List<AnimeSuggestion> all = animeSuggestService.suggest("", 10);
+		Assertions.assertThat(all).hasSize(3);
+	}
+}
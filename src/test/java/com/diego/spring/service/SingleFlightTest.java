@@ -0,0 +1,140 @@
+package com.diego.spring.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.diego.spring.exception.BadRequestException;
+import com.diego.spring.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Tests for Single Flight")
+class SingleFlightTest {
+
+	private static final int WAITERS = 8;
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final SingleFlight singleFlight = new SingleFlight(meterRegistry, Duration.ofSeconds(5), true);
+	private final ExecutorService executor = Executors.newFixedThreadPool(WAITERS + 1);
+	private final CountDownLatch loading = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	@DisplayName("execute shares one load and its result when calls for the same key are concurrent")
+	void execute_SharesOneLoad_WhenCallsAreConcurrent() throws Exception {
+		Object result = new Object();
+		List<Future<Object>> futures = startConcurrentCalls(() -> result);
+
+		release.countDown();
+
+		for (Future<Object> future : futures) {
+			Assertions.assertThat(future.get(5, TimeUnit.SECONDS)).isSameAs(result);
+		}
+		Assertions.assertThat(loads).hasValue(1);
+		Assertions.assertThat(count("leader")).isEqualTo(1);
+		Assertions.assertThat(count("coalesced")).isEqualTo(WAITERS);
+	}
+
+	@Test
+	@DisplayName("execute throws the load exception to every waiter when load fails")
+	void execute_ThrowsLoadException_WhenLoadFails() throws Exception {
+		BadRequestException failure = new BadRequestException("Anime not found");
+		List<Future<Object>> futures = startConcurrentCalls(() -> {
+			throw failure;
+		});
+
+		release.countDown();
+
+		for (Future<Object> future : futures) {
+			Assertions.assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+				.isInstanceOf(ExecutionException.class)
+				.hasCause(failure);
+		}
+		Assertions.assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	@DisplayName("execute throws ServiceUnavailableException to waiters when load takes longer than timeout")
+	void execute_ThrowsServiceUnavailableException_WhenLoadTakesLongerThanTimeout() throws Exception {
+		SingleFlight shortTimeout = new SingleFlight(meterRegistry, Duration.ofMillis(50), true);
+		Future<Object> leader = executor.submit(() -> shortTimeout.execute("findById", 1L, this::blockingLoad));
+		Assertions.assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		Assertions.assertThatThrownBy(() -> shortTimeout.execute("findById", 1L, this::blockingLoad))
+			.isInstanceOf(ServiceUnavailableException.class);
+		Assertions.assertThat(count("timeout")).isEqualTo(1);
+
+		// A carga continua e termina normalmente para quem a iniciou
+		release.countDown();
+		Assertions.assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("loaded");
+	}
+
+	@Test
+	@DisplayName("execute loads again when previous load for the same key has finished")
+	void execute_LoadsAgain_WhenPreviousLoadHasFinished() {
+		Assertions.assertThat(singleFlight.<Integer>execute("findById", 1L, loads::incrementAndGet)).isEqualTo(1);
+		Assertions.assertThat(singleFlight.<Integer>execute("findById", 1L, loads::incrementAndGet)).isEqualTo(2);
+		Assertions.assertThat(singleFlight.<Integer>execute("findByName", 1L, loads::incrementAndGet)).isEqualTo(3);
+
+		Assertions.assertThat(count("coalesced")).isZero();
+	}
+
+	// Um líder bloqueado na carga e WAITERS chamadas esperando por ele
+	private List<Future<Object>> startConcurrentCalls(Supplier<Object> result) throws InterruptedException {
+		List<Future<Object>> futures = new ArrayList<>();
+		futures.add(executor.submit(() -> singleFlight.execute("findById", 1L, () -> {
+			blockingLoad();
+			return result.get();
+		})));
+		Assertions.assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+		for (int i = 0; i < WAITERS; i++) {
+			futures.add(executor.submit(() -> singleFlight.execute("findById", 1L, () -> {
+				loads.incrementAndGet();
+				return new Object();
+			})));
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (count("coalesced") < WAITERS && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+		return futures;
+	}
+
+	private String blockingLoad() {
+		loads.incrementAndGet();
+		loading.countDown();
+		try {
+			release.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return "loaded";
+	}
+
+	private double count(String result) {
+		return meterRegistry.get(SingleFlight.METRIC_NAME).tag("operation", "findById").tag("result", result)
+				.counter().count();
+	}
+}
@@ -0,0 +1,3 @@
+-- Esquema da réplica no DataSourceRoutingIT (no primário é o Hibernate que cria), um anime que só existe nela
+create table if not exists anime (id bigint not null primary key, name varchar(255), version bigint not null);
+merge into anime (id, name, version) key (id) values (1000000, 'Replica only', 0);